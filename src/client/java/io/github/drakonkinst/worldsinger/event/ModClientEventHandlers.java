@@ -28,9 +28,11 @@ import io.github.drakonkinst.worldsinger.cosmere.PossessionManager;
 import io.github.drakonkinst.worldsinger.entity.CameraPossessable;
 import io.github.drakonkinst.worldsinger.entity.CameraPossessable.AttackOrigin;
 import io.github.drakonkinst.worldsinger.entity.freelook.FreeLook;
+import io.github.drakonkinst.worldsinger.fluid.Fluidlogged;
 import io.github.drakonkinst.worldsinger.network.packet.PossessAttackPayload;
 import io.github.drakonkinst.worldsinger.network.packet.PossessUpdatePayload;
 import io.github.drakonkinst.worldsinger.util.PossessionClientUtil;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
 import net.fabricmc.fabric.api.event.client.player.ClientPickBlockApplyCallback;
@@ -51,6 +53,9 @@ import net.minecraft.util.math.MathHelper;
 public final class ModClientEventHandlers {
 
     public static void registerEventHandlers() {
+        // Clients connecting to a remote server never see SERVER_STARTING
+        ClientLifecycleEvents.CLIENT_STARTED.register(client -> Fluidlogged.freezeLookupTables());
+
         // Possession movement
         // For as little latency as possible, movement commands while possessing are sent on the
         // render thread rather than only 20 times per second. This makes the client view smooth,
@@ -51,6 +51,10 @@ public final class WorldsingerConfig {
     private static final String KEY_THIRST_METER_VISIBILITY = "thirst_meter_visibility";
     private static final String KEY_THIRST_METER_ON_CONSUME = "thirst_meter_on_consume";
     private static final String KEY_THIRST_METER_FADE_AFTER = "thirst_meter_fade_after";
+    private static final String KEY_LUNAGREE_PREFETCH_LIMIT = "lunagree_prefetch_max_in_flight";
+    private static final String KEY_SPORE_GROWTH_BUDGET_MS = "spore_growth_budget_ms";
+    private static final String KEY_SPAWN_SEARCH_TIMEOUT_MS = "spawn_search_timeout_ms";
+    private static final String KEY_FLUIDIZATION_BUDGET = "spore_fluidization_block_budget";
     private static WorldsingerConfig INSTANCE;
 
     // TODO: Finish thirst meter options at some point
@@ -76,6 +80,16 @@ public final class WorldsingerConfig {
             private double fadeThirstMeterAfter = 3.0;
         }
 
+        private final Performance performance = new Performance();
+
+        private static class Performance {
+
+            private int lunagreePrefetchMaxInFlight = 2;
+            private double sporeGrowthBudgetMillis = 10.0;
+            private int spawnSearchTimeoutMillis = 60000;
+            private int sporeFluidizationBlockBudget = 4096;
+        }
+
     }
 
     public static WorldsingerConfig instance() {
@@ -108,6 +122,22 @@ public final class WorldsingerConfig {
         return configValues.physics.fluidloggableFluids;
     }
 
+    public int getLunagreePrefetchMaxInFlight() {
+        return configValues.performance.lunagreePrefetchMaxInFlight;
+    }
+
+    public double getSporeGrowthBudgetMillis() {
+        return configValues.performance.sporeGrowthBudgetMillis;
+    }
+
+    public int getSpawnSearchTimeoutMillis() {
+        return configValues.performance.spawnSearchTimeoutMillis;
+    }
+
+    public int getSporeFluidizationBlockBudget() {
+        return configValues.performance.sporeFluidizationBlockBudget;
+    }
+
     private static class Serializer implements JsonDeserializer<WorldsingerConfig> {
 
         private static List<Identifier> stringListToIdentifierList(JsonStack stack,
@@ -129,7 +159,9 @@ public final class WorldsingerConfig {
                 JsonDeserializationContext context) throws JsonParseException {
             JsonStack jsonStack = new JsonStack(GSON, root);
             jsonStack.allow(KEY_FLUIDLOGGABLE_FLUIDS, KEY_THIRST_METER_VISIBILITY,
-                    KEY_THIRST_METER_ON_CONSUME, KEY_THIRST_METER_FADE_AFTER);
+                    KEY_THIRST_METER_ON_CONSUME, KEY_THIRST_METER_FADE_AFTER,
+                    KEY_LUNAGREE_PREFETCH_LIMIT, KEY_SPORE_GROWTH_BUDGET_MS,
+                    KEY_SPAWN_SEARCH_TIMEOUT_MS, KEY_FLUIDIZATION_BUDGET);
 
             ConfigValues configValues = new ConfigValues();
 
@@ -145,6 +177,22 @@ public final class WorldsingerConfig {
             configValues.hud.fadeThirstMeterAfter = jsonStack.getDoubleOrElse(
                     KEY_THIRST_METER_ON_CONSUME, configValues.hud.fadeThirstMeterAfter);
 
+            // Performance
+            configValues.performance.lunagreePrefetchMaxInFlight = jsonStack.getIntOrElse(
+                    KEY_LUNAGREE_PREFETCH_LIMIT,
+                    configValues.performance.lunagreePrefetchMaxInFlight);
+            configValues.performance.sporeGrowthBudgetMillis = jsonStack.getDoubleOrElse(
+                    KEY_SPORE_GROWTH_BUDGET_MS, configValues.performance.sporeGrowthBudgetMillis);
+            configValues.performance.spawnSearchTimeoutMillis = jsonStack.getIntOrElse(
+                    KEY_SPAWN_SEARCH_TIMEOUT_MS, configValues.performance.spawnSearchTimeoutMillis);
+            configValues.performance.sporeFluidizationBlockBudget = jsonStack.getIntOrElse(
+                    KEY_FLUIDIZATION_BUDGET,
+                    configValues.performance.sporeFluidizationBlockBudget);
+
+            // Invalid values fall back to their defaults
+            for (String error : jsonStack.getErrors()) {
+                Worldsinger.LOGGER.error("Invalid config: " + error);
+            }
             return new WorldsingerConfig(configValues);
         }
     }
@@ -74,9 +74,17 @@ public class AetherSporeFluidBlock extends FluidBlock implements SporeEmitting {
             return;
         }
 
-        BlockPos.Mutable mutable = pos.mutableCopy();
+        if (world instanceof SporeFluidizationQueueAccess access) {
+            // Many columns can change at once, so spread the work out over the next few ticks.
+            // The block below may change again before then, so it is checked when the sweep runs
+            access.worldsinger$getSporeFluidizationQueue().add(pos);
+            return;
+        }
+
         boolean fluidized = AetherSporeFluidBlock.shouldFluidize(fluidizeSource);
 
+        BlockPos.Mutable mutable = pos.mutableCopy();
+
         // Iterate upwards and update fluidization
         while (AetherSporeFluidBlock.updateFluidizationForBlock(world, mutable,
                 world.getBlockState(mutable), fluidized) && mutable.getY() < world.getTopY()) {
@@ -0,0 +1,207 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023-2024 Drakonkinst
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.drakonkinst.worldsinger.block;
+
+import io.github.drakonkinst.worldsinger.WorldsingerConfig;
+import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntAVLTreeSet;
+import it.unimi.dsi.fastutil.ints.IntSortedSet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+
+// Spreads out the upward fluidization and solidification sweeps started by
+// AetherSporeFluidBlock.update() over multiple ticks, under a per-tick block budget. Requests are
+// grouped by chunk and column. Whether a sweep fluidizes or solidifies is decided from the block
+// below it when it runs, so the latest state of the column always wins. A sweep from the lowest
+// requested height covers any other request in the same column that it passes, since those
+// would repeat the same work.
+public class SporeFluidizationQueue {
+
+    // The world operations used while draining, separated so the queue can be tested
+    interface ColumnAccess {
+
+        boolean isChunkLoaded(int chunkX, int chunkZ);
+
+        int getTopY();
+
+        // Whether the block at pos should fluidize, based on the block below it
+        boolean shouldFluidize(BlockPos pos);
+
+        // Returns false if obstructed
+        boolean updateFluidization(BlockPos pos, boolean fluidized);
+    }
+
+    private static class WorldColumnAccess implements ColumnAccess {
+
+        private final BlockPos.Mutable belowPos = new BlockPos.Mutable();
+        private ServerWorld world;
+
+        @Override
+        public boolean isChunkLoaded(int chunkX, int chunkZ) {
+            return world.isChunkLoaded(chunkX, chunkZ);
+        }
+
+        @Override
+        public int getTopY() {
+            return world.getTopY();
+        }
+
+        @Override
+        public boolean shouldFluidize(BlockPos pos) {
+            belowPos.set(pos.getX(), pos.getY() - 1, pos.getZ());
+            return AetherSporeFluidBlock.shouldFluidize(world.getBlockState(belowPos));
+        }
+
+        @Override
+        public boolean updateFluidization(BlockPos pos, boolean fluidized) {
+            return AetherSporeFluidBlock.updateFluidizationForBlock(world, pos,
+                    world.getBlockState(pos), fluidized);
+        }
+    }
+
+    private static int getColumnKey(int x, int z) {
+        return (x & 15) | ((z & 15) << 4);
+    }
+
+    private final Long2ObjectLinkedOpenHashMap<Int2ObjectLinkedOpenHashMap<IntSortedSet>> requests =
+            new Long2ObjectLinkedOpenHashMap<>();
+    // Requests in chunks that unloaded before they were finished, resumed once they load again
+    private final Long2ObjectMap<Int2ObjectLinkedOpenHashMap<IntSortedSet>> parkedRequests =
+            new Long2ObjectOpenHashMap<>();
+    private final WorldColumnAccess worldColumnAccess = new WorldColumnAccess();
+    private final BlockPos.Mutable mutable = new BlockPos.Mutable();
+    private int numRequests = 0;
+
+    public void add(BlockPos pos) {
+        long chunkKey = ChunkPos.toLong(ChunkSectionPos.getSectionCoord(pos.getX()),
+                ChunkSectionPos.getSectionCoord(pos.getZ()));
+        Int2ObjectLinkedOpenHashMap<IntSortedSet> columns = requests.get(chunkKey);
+        if (columns == null) {
+            columns = parkedRequests.remove(chunkKey);
+            if (columns == null) {
+                columns = new Int2ObjectLinkedOpenHashMap<>();
+            }
+            requests.put(chunkKey, columns);
+        }
+        int columnKey = SporeFluidizationQueue.getColumnKey(pos.getX(), pos.getZ());
+        IntSortedSet startHeights = columns.get(columnKey);
+        if (startHeights == null) {
+            startHeights = new IntAVLTreeSet();
+            columns.put(columnKey, startHeights);
+        }
+        if (startHeights.add(pos.getY())) {
+            ++numRequests;
+        }
+    }
+
+    public void onChunkLoaded(ChunkPos chunkPos) {
+        long chunkKey = chunkPos.toLong();
+        Int2ObjectLinkedOpenHashMap<IntSortedSet> columns = parkedRequests.remove(chunkKey);
+        if (columns != null) {
+            requests.put(chunkKey, columns);
+        }
+    }
+
+    public void serverTick(ServerWorld world) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        worldColumnAccess.world = world;
+        drain(worldColumnAccess,
+                Math.max(1, WorldsingerConfig.instance().getSporeFluidizationBlockBudget()));
+        worldColumnAccess.world = null;
+    }
+
+    void drain(ColumnAccess access, int budget) {
+        while (budget > 0 && !requests.isEmpty()) {
+            long chunkKey = requests.firstLongKey();
+            int chunkX = ChunkPos.getPackedX(chunkKey);
+            int chunkZ = ChunkPos.getPackedZ(chunkKey);
+            if (!access.isChunkLoaded(chunkX, chunkZ)) {
+                // Not worth loading the chunk again just to update it, but the sweep should not
+                // be left half done either
+                parkedRequests.put(chunkKey, requests.removeFirst());
+                continue;
+            }
+
+            Int2ObjectLinkedOpenHashMap<IntSortedSet> columns = requests.get(chunkKey);
+            while (budget > 0 && !columns.isEmpty()) {
+                int columnKey = columns.firstIntKey();
+                IntSortedSet startHeights = columns.get(columnKey);
+                int startY = startHeights.firstInt();
+                startHeights.remove(startY);
+                --numRequests;
+
+                int x = ChunkSectionPos.getBlockCoord(chunkX) + (columnKey & 15);
+                int z = ChunkSectionPos.getBlockCoord(chunkZ) + ((columnKey >> 4) & 15);
+                mutable.set(x, startY, z);
+                boolean fluidized = access.shouldFluidize(mutable);
+                while (true) {
+                    --budget;
+                    if (!access.updateFluidization(mutable, fluidized)
+                            || mutable.getY() >= access.getTopY()) {
+                        break;
+                    }
+                    mutable.move(0, 1, 0);
+                    if (budget <= 0) {
+                        // Continue from here next tick
+                        if (startHeights.add(mutable.getY())) {
+                            ++numRequests;
+                        }
+                        break;
+                    }
+                }
+
+                // Requests the sweep passed through are already done
+                int endY = mutable.getY();
+                while (!startHeights.isEmpty() && startHeights.firstInt() < endY) {
+                    startHeights.remove(startHeights.firstInt());
+                    --numRequests;
+                }
+                if (budget > 0 && !startHeights.isEmpty() && startHeights.firstInt() == endY) {
+                    // The sweep ended on an obstruction, which a request here would also stop at
+                    startHeights.remove(endY);
+                    --numRequests;
+                }
+                if (startHeights.isEmpty()) {
+                    columns.remove(columnKey);
+                }
+            }
+            if (columns.isEmpty()) {
+                requests.remove(chunkKey);
+            }
+        }
+    }
+
+    // Includes requests waiting for their chunk to load again
+    public int getQueuedRequestCount() {
+        return numRequests;
+    }
+}
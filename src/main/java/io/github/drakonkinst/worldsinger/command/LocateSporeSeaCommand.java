@@ -38,9 +38,21 @@ import io.github.drakonkinst.worldsinger.cosmere.lumar.DeadSpores;
 import io.github.drakonkinst.worldsinger.util.BlockPosUtil;
 import io.github.drakonkinst.worldsinger.worldgen.lumar.LumarChunkGenerator;
 import io.github.drakonkinst.worldsinger.worldgen.lumar.LumarChunkGenerator.SporeSeaEntry;
+import it.unimi.dsi.fastutil.booleans.BooleanArrayList;
+import it.unimi.dsi.fastutil.booleans.BooleanList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import net.minecraft.registry.entry.RegistryEntry;
 import net.minecraft.server.command.ServerCommandSource;
@@ -53,6 +65,7 @@ import net.minecraft.util.Formatting;
 import net.minecraft.util.Util;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.BlockPos.Mutable;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.Heightmap;
@@ -91,21 +104,34 @@ public class LocateSporeSeaCommand {
         }
 
         BlockPos originPos = BlockPos.ofFloored(source.getPosition());
-        Stopwatch stopwatch = Stopwatch.createStarted(Util.TICKER);
-        Pair<BlockPos, SporeSeaEntry> result = LocateSporeSeaCommand.locateSporeSea(
-                source.getWorld(), originPos.getX(), originPos.getZ(), 6400, 64, false,
-                IntSet.of(spores.getId()), null);
-        stopwatch.stop();
-        if (result == null) {
-            throw SPORE_SEA_NOT_FOUND_EXCEPTION.create(spores.getSeaDisplayName());
-        } else {
-            BlockPos locatedPos = result.getFirst();
-            return LocateSporeSeaCommand.sendCoordinates(source, originPos, locatedPos, spores,
-                    stopwatch.elapsed());
-        }
+        ServerWorld world = source.getWorld();
+        Text seaName = spores.getSeaDisplayName();
+        source.sendFeedback(() -> Text.translatable("commands.locate.spore_sea.searching", seaName),
+                false);
+        // Searched on a worker thread so the server keeps ticking. Without the spawn height
+        // check, the search only samples noise, so it is safe to run off-thread.
+        CompletableFuture.supplyAsync(() -> {
+            Stopwatch stopwatch = Stopwatch.createStarted(Util.TICKER);
+            Pair<BlockPos, SporeSeaEntry> result = LocateSporeSeaCommand.locateSporeSea(world,
+                    originPos.getX(), originPos.getZ(), 6400, 64, false, IntSet.of(spores.getId()),
+                    null);
+            return Pair.of(result, stopwatch.elapsed());
+        }, Util.getMainWorkerExecutor()).whenCompleteAsync((searchResult, throwable) -> {
+            if (throwable != null) {
+                Worldsinger.LOGGER.error("Failed to search for spore sea", throwable);
+                source.sendError(Text.translatable("commands.locate.spore_sea.failed", seaName));
+            } else if (searchResult.getFirst() == null) {
+                source.sendError(Texts.toText(
+                        SPORE_SEA_NOT_FOUND_EXCEPTION.create(seaName).getRawMessage()));
+            } else {
+                LocateSporeSeaCommand.sendCoordinates(source, originPos,
+                        searchResult.getFirst().getFirst(), spores, searchResult.getSecond());
+            }
+        }, source.getServer());
+        return 1;
     }
 
-    private static int sendCoordinates(ServerCommandSource source, BlockPos originPos,
+    private static void sendCoordinates(ServerCommandSource source, BlockPos originPos,
             BlockPos locatedPos, AetherSpores spores, Duration timeTaken) {
         Text coordinatesText = LocateSporeSeaCommand.createCoordinatesText(locatedPos);
         int distanceInBlocks = MathHelper.floor(
@@ -116,7 +142,6 @@ public class LocateSporeSeaCommand {
         Worldsinger.LOGGER.info(
                 "Locating element " + spores.getSeaDisplayName().getString() + " took "
                         + timeTaken.toMillis() + " ms");
-        return 1;
     }
 
     private static Text createCoordinatesText(BlockPos blockPos) {
@@ -136,12 +161,7 @@ public class LocateSporeSeaCommand {
             int height = world.getTopY(Heightmap.Type.MOTION_BLOCKING_NO_LEAVES, x, z);
             return height > IDEAL_SPAWN_HEIGHT;
         } else {
-            // Rely on noise height
-            int height = world.getChunkManager()
-                    .getChunkGenerator()
-                    .getHeight(x, z, Heightmap.Type.MOTION_BLOCKING_NO_LEAVES, world,
-                            world.getChunkManager().getNoiseConfig());
-            return height > IDEAL_SPAWN_HEIGHT;
+            return isProbablyIdealSpawnHeightFromNoise(world, x, z);
 
             // If all else fails, look for a place with high depth as a guesstimate
             // double depth = world.getChunkManager()
@@ -154,6 +174,15 @@ public class LocateSporeSeaCommand {
         }
     }
 
+    // Rely on noise height. Unlike the loaded chunk check, this is safe to call off-thread
+    private static boolean isProbablyIdealSpawnHeightFromNoise(ServerWorld world, int x, int z) {
+        int height = world.getChunkManager()
+                .getChunkGenerator()
+                .getHeight(x, z, Heightmap.Type.MOTION_BLOCKING_NO_LEAVES, world,
+                        world.getChunkManager().getNoiseConfig());
+        return height > IDEAL_SPAWN_HEIGHT;
+    }
+
     @Nullable
     public static Pair<BlockPos, SporeSeaEntry> locateSporeSea(ServerWorld world, int originX,
             int originZ, int radius, int horizontalBlockCheckInterval,
@@ -169,7 +198,7 @@ public class LocateSporeSeaCommand {
                 Direction.SOUTH)) {
             int x = originX + mutable.getX() * horizontalBlockCheckInterval;
             int z = originZ + mutable.getZ() * horizontalBlockCheckInterval;
-            SporeSeaEntry entry = LumarChunkGenerator.getSporeSeaEntryAtPos(noiseConfig, x, z);
+            SporeSeaEntry entry = LumarChunkGenerator.probeSporeSeaEntryAtPos(noiseConfig, x, z);
             if (filterSporeIds.contains(entry.id())) {
                 if (mustBeIdealSpawnHeight) {
                     if (isProbablyIdealSpawnHeight(world, x, z)) {
@@ -194,4 +223,257 @@ public class LocateSporeSeaCommand {
         return null;
     }
 
+    // Same search as locateSporeSea(), but the spiral is split into shards of consecutive
+    // positions that are searched on the given executor. Shards are reduced in spiral order, so the
+    // result is the same as the serial search. Anything that depends on loaded chunks is checked
+    // on the calling thread. Returns null if nothing was found or the search timed out.
+    @Nullable
+    public static Pair<BlockPos, SporeSeaEntry> locateSporeSeaInParallel(ServerWorld world,
+            int originX, int originZ, int radius, int horizontalBlockCheckInterval,
+            boolean mustBeIdealSpawnHeight, IntSet filterSporeIds,
+            @Nullable Predicate<RegistryEntry<Biome>> biomePredicate, Executor executor,
+            long timeoutMillis) {
+        if (!CosmerePlanet.isLumar(world)) {
+            return null;
+        }
+        ParallelSearch search = new ParallelSearch(
+                new WorldSearchChecks(world, mustBeIdealSpawnHeight, filterSporeIds,
+                        biomePredicate), originX, originZ, radius, horizontalBlockCheckInterval,
+                mustBeIdealSpawnHeight);
+        return search.run(executor, timeoutMillis);
+    }
+
+    // Checks made by the parallel search for each position. Only confirm() is called on the
+    // calling thread, so it is the only one that may depend on loaded chunks.
+    interface SearchChecks {
+
+        // Returns the spore sea at this position if it passes every off-thread check
+        @Nullable
+        SporeSeaEntry getMatchingEntry(int x, int z);
+
+        boolean isIdealSpawnHeightFromNoise(int x, int z);
+
+        boolean confirm(int x, int z, boolean idealHeightFromNoise);
+    }
+
+    private static class WorldSearchChecks implements SearchChecks {
+
+        private final ServerWorld world;
+        private final NoiseConfig noiseConfig;
+        private final boolean mustBeIdealSpawnHeight;
+        private final IntSet filterSporeIds;
+        @Nullable
+        private final Predicate<RegistryEntry<Biome>> biomePredicate;
+
+        private WorldSearchChecks(ServerWorld world, boolean mustBeIdealSpawnHeight,
+                IntSet filterSporeIds, @Nullable Predicate<RegistryEntry<Biome>> biomePredicate) {
+            this.world = world;
+            this.noiseConfig = world.getChunkManager().getNoiseConfig();
+            this.mustBeIdealSpawnHeight = mustBeIdealSpawnHeight;
+            this.filterSporeIds = filterSporeIds;
+            this.biomePredicate = biomePredicate;
+        }
+
+        // Matches locateSporeSea(), which only checks the biome if the height does not matter
+        @Override
+        public @Nullable SporeSeaEntry getMatchingEntry(int x, int z) {
+            SporeSeaEntry entry = LumarChunkGenerator.probeSporeSeaEntryAtPos(noiseConfig, x, z);
+            if (!filterSporeIds.contains(entry.id())) {
+                return null;
+            }
+            if (mustBeIdealSpawnHeight || biomePredicate == null) {
+                return entry;
+            }
+            RegistryEntry<Biome> biome = world.getChunkManager()
+                    .getChunkGenerator()
+                    .getBiomeSource()
+                    .getBiome(BiomeCoords.fromBlock(x),
+                            BiomeCoords.fromBlock(LumarChunkGenerator.SEA_LEVEL),
+                            BiomeCoords.fromBlock(z), noiseConfig.getMultiNoiseSampler());
+            return biomePredicate.test(biome) ? entry : null;
+        }
+
+        @Override
+        public boolean isIdealSpawnHeightFromNoise(int x, int z) {
+            return LocateSporeSeaCommand.isProbablyIdealSpawnHeightFromNoise(world, x, z);
+        }
+
+        @SuppressWarnings("deprecation")
+        @Override
+        public boolean confirm(int x, int z, boolean idealHeightFromNoise) {
+            if (!mustBeIdealSpawnHeight) {
+                return true;
+            }
+            if (world.isPosLoaded(x, z)) {
+                return LocateSporeSeaCommand.isProbablyIdealSpawnHeight(world, x, z);
+            }
+            return idealHeightFromNoise;
+        }
+    }
+
+    static class ParallelSearch {
+
+        private static final int SHARD_SIZE = 2048;
+        private static final long PROGRESS_LOG_INTERVAL_MILLIS = 5000;
+        private static final ShardResult CANCELLED = new ShardResult(new IntArrayList(),
+                new ArrayList<>(), new BooleanArrayList(), -1, true);
+
+        private final SearchChecks checks;
+        private final int originX;
+        private final int originZ;
+        private final int interval;
+        private final boolean mustBeIdealSpawnHeight;
+        // Offsets in spiral order, packed with ChunkPos.toLong()
+        private final long[] offsets;
+        // Shards after this one do not need to finish, since an earlier shard has a likely result
+        private final AtomicInteger cancelAfterShard = new AtomicInteger(Integer.MAX_VALUE);
+
+        // Candidates are positions that pass every off-thread check, in spiral order. A shard stops
+        // at its first candidate that is probably a result, which is stopIndex, or -1 if it ran
+        // to the end of the shard.
+        private record ShardResult(IntList indices, List<SporeSeaEntry> entries,
+                BooleanList idealHeights, int stopIndex, boolean cancelled) {}
+
+        ParallelSearch(SearchChecks checks, int originX, int originZ, int radius, int interval,
+                boolean mustBeIdealSpawnHeight) {
+            this.checks = checks;
+            this.originX = originX;
+            this.originZ = originZ;
+            this.interval = interval;
+            this.mustBeIdealSpawnHeight = mustBeIdealSpawnHeight;
+
+            int cellRadius = Math.floorDiv(radius, interval);
+            int sideLength = 2 * cellRadius + 1;
+            this.offsets = new long[sideLength * sideLength];
+            int i = 0;
+            for (Mutable mutable : BlockPos.iterateInSquare(BlockPos.ORIGIN, cellRadius,
+                    Direction.EAST, Direction.SOUTH)) {
+                offsets[i++] = ChunkPos.toLong(mutable.getX(), mutable.getZ());
+            }
+        }
+
+        @Nullable
+        Pair<BlockPos, SporeSeaEntry> run(Executor executor, long timeoutMillis) {
+            int numShards = Math.ceilDiv(offsets.length, SHARD_SIZE);
+            List<CompletableFuture<ShardResult>> futures = new ArrayList<>(numShards);
+            for (int shard = 0; shard < numShards; ++shard) {
+                int shardIndex = shard;
+                futures.add(CompletableFuture.supplyAsync(
+                        () -> this.searchShard(shardIndex, shardIndex * SHARD_SIZE, true),
+                        executor));
+            }
+
+            long startTime = Util.getMeasuringTimeMs();
+            long lastLogTime = startTime;
+            try {
+                for (int shard = 0; shard < numShards; ++shard) {
+                    ShardResult result = null;
+                    while (result == null) {
+                        long now = Util.getMeasuringTimeMs();
+                        long remaining = timeoutMillis - (now - startTime);
+                        if (remaining <= 0) {
+                            Worldsinger.LOGGER.warn("Spore sea search timed out after {} ms",
+                                    timeoutMillis);
+                            return null;
+                        }
+                        if (now - lastLogTime >= PROGRESS_LOG_INTERVAL_MILLIS) {
+                            lastLogTime = now;
+                            Worldsinger.LOGGER.info("Searching for spore sea: {}%",
+                                    MathHelper.floor(100.0f * shard / numShards));
+                        }
+                        try {
+                            result = futures.get(shard)
+                                    .get(Math.min(remaining, PROGRESS_LOG_INTERVAL_MILLIS),
+                                            TimeUnit.MILLISECONDS);
+                        } catch (TimeoutException e) {
+                            // Check the overall timeout and log progress, then keep waiting
+                        }
+                    }
+
+                    Pair<BlockPos, SporeSeaEntry> found = this.reduceShard(shard, result);
+                    if (found != null) {
+                        return found;
+                    }
+                }
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException e) {
+                Worldsinger.LOGGER.error("Failed to search for spore sea", e);
+                return null;
+            } finally {
+                // Stop any shards that are still running
+                cancelAfterShard.set(-1);
+            }
+        }
+
+        // Runs on the calling thread. Confirms the shard's candidates in order, and searches the
+        // rest of the shard here if needed.
+        @Nullable
+        private Pair<BlockPos, SporeSeaEntry> reduceShard(int shard, ShardResult result) {
+            int shardEnd = Math.min((shard + 1) * SHARD_SIZE, offsets.length);
+            while (true) {
+                if (result.cancelled()) {
+                    // An earlier shard's likely result was rejected, so search this one here
+                    result = this.searchShard(shard, shard * SHARD_SIZE, false);
+                }
+                for (int i = 0; i < result.indices().size(); ++i) {
+                    int index = result.indices().getInt(i);
+                    if (this.confirmCandidate(index, result.idealHeights().getBoolean(i))) {
+                        long offset = offsets[index];
+                        int x = originX + ChunkPos.getPackedX(offset) * interval;
+                        int z = originZ + ChunkPos.getPackedZ(offset) * interval;
+                        return Pair.of(new BlockPos(x, 0, z), result.entries().get(i));
+                    }
+                }
+                if (result.stopIndex() < 0 || result.stopIndex() + 1 >= shardEnd) {
+                    return null;
+                }
+                result = this.searchShard(shard, result.stopIndex() + 1, false);
+            }
+        }
+
+        private boolean confirmCandidate(int index, boolean idealHeightFromNoise) {
+            long offset = offsets[index];
+            int x = originX + ChunkPos.getPackedX(offset) * interval;
+            int z = originZ + ChunkPos.getPackedZ(offset) * interval;
+            return checks.confirm(x, z, idealHeightFromNoise);
+        }
+
+        // Searches from startIndex to the end of the shard, using only checks that are safe to run
+        // off-thread
+        private ShardResult searchShard(int shard, int startIndex, boolean cancellable) {
+            int endIndex = Math.min((shard + 1) * SHARD_SIZE, offsets.length);
+            IntList indices = new IntArrayList();
+            List<SporeSeaEntry> entries = new ArrayList<>();
+            BooleanList idealHeights = new BooleanArrayList();
+            for (int index = startIndex; index < endIndex; ++index) {
+                if (cancellable && shard > cancelAfterShard.get()) {
+                    return CANCELLED;
+                }
+                long offset = offsets[index];
+                int x = originX + ChunkPos.getPackedX(offset) * interval;
+                int z = originZ + ChunkPos.getPackedZ(offset) * interval;
+                SporeSeaEntry entry = checks.getMatchingEntry(x, z);
+                if (entry == null) {
+                    continue;
+                }
+
+                boolean isLikelyResult = !mustBeIdealSpawnHeight
+                        || checks.isIdealSpawnHeightFromNoise(x, z);
+                indices.add(index);
+                entries.add(entry);
+                idealHeights.add(isLikelyResult);
+
+                if (isLikelyResult) {
+                    if (cancellable) {
+                        cancelAfterShard.accumulateAndGet(shard, Math::min);
+                    }
+                    return new ShardResult(indices, entries, idealHeights, index, false);
+                }
+            }
+            return new ShardResult(indices, entries, idealHeights, -1, false);
+        }
+    }
 }
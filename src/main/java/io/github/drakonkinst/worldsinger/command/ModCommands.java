@@ -45,6 +45,7 @@ public final class ModCommands {
     private static void createCommands(CommandDispatcher<ServerCommandSource> dispatcher) {
         SeetheCommand.register(dispatcher);
         SporeCommand.register(dispatcher);
+        SporeGrowthCommand.register(dispatcher);
     }
 
     private ModCommands() {}
@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023-2024 Drakonkinst
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.drakonkinst.worldsinger.cosmere;
+
+import io.github.drakonkinst.worldsinger.registry.tag.ModBlockTags;
+import io.github.drakonkinst.worldsinger.util.BlockPosUtil;
+import it.unimi.dsi.fastutil.longs.Long2BooleanMap;
+import it.unimi.dsi.fastutil.longs.Long2BooleanOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+// Remembers whether investiture is blocked between pairs of blocks for the rest of the tick, since
+// the same pairs tend to be checked many times over. Results are dropped when a block that could
+// lie along one of the rays starts or stops blocking investiture.
+public class InvestitureOcclusionCache {
+
+    // Emitter -> listener -> whether it is blocked
+    private final Long2ObjectMap<Long2BooleanMap> results = new Long2ObjectOpenHashMap<>();
+    private long lastTime = Long.MIN_VALUE;
+
+    public boolean isBlocked(World world, BlockPos emitterPos, BlockPos listenerPos) {
+        long time = world.getTime();
+        if (time != lastTime) {
+            results.clear();
+            lastTime = time;
+        }
+
+        Long2BooleanMap listenerResults = results.computeIfAbsent(emitterPos.asLong(),
+                key -> new Long2BooleanOpenHashMap());
+        long listenerKey = listenerPos.asLong();
+        if (listenerResults.containsKey(listenerKey)) {
+            return listenerResults.get(listenerKey);
+        }
+        boolean isBlocked = BlockPosUtil.isOccluded(world, emitterPos, listenerPos,
+                ModBlockTags.BLOCKS_INVESTITURE);
+        listenerResults.put(listenerKey, isBlocked);
+        return isBlocked;
+    }
+
+    public void onBlockChanged(BlockPos pos, BlockState oldState, BlockState newState) {
+        if (results.isEmpty() || oldState.isIn(ModBlockTags.BLOCKS_INVESTITURE) == newState.isIn(
+                ModBlockTags.BLOCKS_INVESTITURE)) {
+            return;
+        }
+        // Rays never leave the box between their two end blocks
+        int x = pos.getX();
+        int y = pos.getY();
+        int z = pos.getZ();
+        ObjectIterator<Long2ObjectMap.Entry<Long2BooleanMap>> emitterIterator =
+                results.long2ObjectEntrySet().iterator();
+        while (emitterIterator.hasNext()) {
+            Long2ObjectMap.Entry<Long2BooleanMap> entry = emitterIterator.next();
+            long emitterKey = entry.getLongKey();
+            int emitterX = BlockPos.unpackLongX(emitterKey);
+            int emitterY = BlockPos.unpackLongY(emitterKey);
+            int emitterZ = BlockPos.unpackLongZ(emitterKey);
+            LongIterator listenerIterator = entry.getValue().keySet().iterator();
+            while (listenerIterator.hasNext()) {
+                long listenerKey = listenerIterator.nextLong();
+                if (isBetween(x, emitterX, BlockPos.unpackLongX(listenerKey)) && isBetween(y,
+                        emitterY, BlockPos.unpackLongY(listenerKey)) && isBetween(z, emitterZ,
+                        BlockPos.unpackLongZ(listenerKey))) {
+                    listenerIterator.remove();
+                }
+            }
+            if (entry.getValue().isEmpty()) {
+                emitterIterator.remove();
+            }
+        }
+    }
+
+    private static boolean isBetween(int value, int a, int b) {
+        return value >= Math.min(a, b) && value <= Math.max(a, b);
+    }
+}
@@ -29,37 +29,61 @@ import io.github.drakonkinst.worldsinger.Worldsinger;
 import io.github.drakonkinst.worldsinger.command.LocateSporeSeaCommand;
 import io.github.drakonkinst.worldsinger.network.packet.LunagreeSyncPayload;
 import io.github.drakonkinst.worldsinger.util.math.Int2;
+import io.github.drakonkinst.worldsinger.world.PersistentByteData;
 import io.github.drakonkinst.worldsinger.worldgen.ModBiomes;
 import io.github.drakonkinst.worldsinger.worldgen.lumar.LumarChunkGenerator.SporeSeaEntry;
 import it.unimi.dsi.fastutil.ints.IntArraySet;
 import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.longs.Long2BooleanLinkedOpenHashMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongList;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
-import net.minecraft.datafixer.DataFixTypes;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtIo;
 import net.minecraft.nbt.NbtList;
-import net.minecraft.registry.RegistryWrapper.WrapperLookup;
+import net.minecraft.nbt.NbtSizeTracker;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Util;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.util.math.MathHelper;
-import net.minecraft.world.PersistentState;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 // Manages lunagree placement and rainlines that orbit lunagrees.
 // On Lumar, lunagrees are placed on an approximate hex grid.
-public class LumarLunagreeGenerator extends PersistentState implements LunagreeGenerator {
+public class LumarLunagreeGenerator extends PersistentByteData implements LunagreeGenerator {
 
     public static final float TRAVEL_DISTANCE = 2000.0f;
     public static final float CELL_SIZE = 1800.0f; // Should always be less than TRAVEL_DISTANCE
     public static final int SEARCH_RADIUS = 1000;  // Should always be less than CELL_SIZE
     public static final int SPORE_FALL_RADIUS = 100;
     public static final int NULL_LUNAGREE_SPORE_ID = 0;
-    public static final String NAME = "lunagrees";
+    public static final String NAME = "lunagree_records";
+    // Lunagrees used to be stored as NBT, which is only read to migrate old worlds
+    public static final String LEGACY_NAME = "lunagrees";
 
     // Offset it by a bit to increase the chance players won't spawn directly in a lunagree
     private static final int CENTER_X = 1600;
@@ -68,7 +92,16 @@ public class LumarLunagreeGenerator extends PersistentState implements LunagreeG
     private static final String KEY_CELL = "cell";
     private static final String KEY_DATA = "data";
 
+    // Records are stored in a flat file in the order they were generated, so new ones can be
+    // appended. Records are only read once a nearby lunagree is needed.
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int RECORD_SIZE = Long.BYTES + LunagreeLocation.BYTE_SIZE;
+    // Records are loaded in square regions of hex cells
+    private static final int REGION_SHIFT = 3;
+
     public static final int SEARCH_CHECK_INTERVAL = 64;
+    private static final int MAX_CACHED_SPOREFALL_CHUNKS = 16384;
 
     private static final IntSet VALID_SPORE_IDS = IntSet.of(VerdantSpores.ID, CrimsonSpores.ID,
             ZephyrSpores.ID, SunlightSpores.ID, RoseiteSpores.ID, MidnightSpores.ID);
@@ -78,37 +111,13 @@ public class LumarLunagreeGenerator extends PersistentState implements LunagreeG
     private static final float RAD_3 = MathHelper.sqrt(3);
     private static final float RAD_3_OVER_3 = RAD_3 / 3.0f;
 
-    public static PersistentState.Type<LumarLunagreeGenerator> getPersistentStateType(
-            ServerWorld world) {
-        return new PersistentState.Type<>(() -> new LumarLunagreeGenerator(world),
-                (nbt, registryLookup) -> LumarLunagreeGenerator.fromNbt(world, nbt),
-                DataFixTypes.LEVEL);
+    public static ByteDataType<LumarLunagreeGenerator> getByteDataType(ServerWorld world) {
+        return new ByteDataType<>(() -> new LumarLunagreeGenerator(world));
     }
 
-    private static LumarLunagreeGenerator fromNbt(ServerWorld world, NbtCompound nbt) {
-        LumarLunagreeGenerator lunagreeManager = new LumarLunagreeGenerator(world);
-        NbtList lunagreeDataList = nbt.getList(KEY_LUNAGREES, NbtElement.COMPOUND_TYPE);
-        boolean anyInvalid = false;
-        for (NbtElement entryData : lunagreeDataList) {
-            NbtCompound entryCompound = (NbtCompound) entryData;
-            long key = entryCompound.getLong(KEY_CELL);
-            NbtCompound valueData = entryCompound.getCompound(KEY_DATA);
-            LunagreeLocation location = LunagreeLocation.fromNbt(valueData);
-            if (location.rainlineNodes()[0] == null) {
-                Worldsinger.LOGGER.warn(
-                        "Failed to parse rainline nodes for " + LumarLunagreeGenerator.keyToString(
-                                key) + ". Re-generating nodes");
-                Int2[] rainlineNodes = RainlinePath.generateRainlineNodes(location.blockX(),
-                        location.blockZ(), world.getRandom());
-                location.setRainlineNodes(rainlineNodes);
-                anyInvalid = true;
-            }
-            lunagreeManager.lunagreeMap.put(key, location);
-        }
-        if (anyInvalid) {
-            lunagreeManager.markDirty();
-        }
-        return lunagreeManager;
+    private static long getRegionKey(long key) {
+        return LumarLunagreeGenerator.toKey(LumarLunagreeGenerator.getQ(key) >> REGION_SHIFT,
+                LumarLunagreeGenerator.getR(key) >> REGION_SHIFT);
     }
 
     // Key is hex coordinates packed into a long
@@ -170,25 +179,234 @@ public class LumarLunagreeGenerator extends PersistentState implements LunagreeG
 
     private final ServerWorld world;
     private final Long2ObjectMap<LunagreeLocation> lunagreeMap = new Long2ObjectOpenHashMap<>();
+    // Offsets of records in the file that have not been loaded yet, grouped by region
+    private final Long2ObjectMap<LongList> unloadedRecordOffsets = new Long2ObjectOpenHashMap<>();
+    // Keys of lunagrees that have not been written to the file yet
+    private final LongList unsavedKeys = new LongArrayList();
+    // The file that records are read from
+    @Nullable
+    private File file = null;
+    // Whether the file is known to end on a record boundary
+    private boolean canAppend = false;
+    // Set if an unreadable file could not be moved out of the way, so that it is not overwritten
+    private boolean saveDisabled = false;
+    // Lunagrees that are currently being generated, only accessed from the server thread
+    private final Long2ObjectMap<CompletableFuture<LunagreeLocation>> pendingLunagrees = new Long2ObjectOpenHashMap<>();
+    // Whether any part of a chunk is within spore fall range of a known lunagree, only accessed
+    // from the server thread
+    private final Long2BooleanLinkedOpenHashMap sporefallChunks =
+            new Long2BooleanLinkedOpenHashMap();
 
     public LumarLunagreeGenerator(ServerWorld world) {
         this.world = world;
     }
 
+    // Only reads the keys of each record, so that the rest can be loaded later
     @Override
-    public NbtCompound writeNbt(NbtCompound nbt, WrapperLookup registryLookup) {
-        NbtList lunagreeDataList = new NbtList();
-        for (Long2ObjectMap.Entry<LunagreeLocation> entry : lunagreeMap.long2ObjectEntrySet()) {
-            NbtCompound valueData = new NbtCompound();
-            LunagreeLocation value = entry.getValue();
-            value.writeNbt(valueData);
-            NbtCompound entryData = new NbtCompound();
-            entryData.putLong(KEY_CELL, entry.getLongKey());
-            entryData.put(KEY_DATA, valueData);
-            lunagreeDataList.add(entryData);
+    public void loadBytesFromFile(File file) {
+        long fileLength = file.length();
+        long validLength = -1;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            int version = in.readInt();
+            int recordSize = in.readInt();
+            if (version != FORMAT_VERSION || recordSize != RECORD_SIZE) {
+                Worldsinger.LOGGER.error("Unknown lunagree data format " + version
+                        + ", lunagrees will be regenerated");
+            } else {
+                long numRecords = (fileLength - HEADER_SIZE) / RECORD_SIZE;
+                for (long i = 0; i < numRecords; ++i) {
+                    long key = in.readLong();
+                    in.skipNBytes(LunagreeLocation.BYTE_SIZE);
+                    unloadedRecordOffsets.computeIfAbsent(
+                            LumarLunagreeGenerator.getRegionKey(key),
+                            regionKey -> new LongArrayList()).add(HEADER_SIZE + i * RECORD_SIZE);
+                }
+                validLength = HEADER_SIZE + numRecords * RECORD_SIZE;
+            }
+        } catch (IOException e) {
+            Worldsinger.LOGGER.error("Failed to read lunagree data", e);
+            unloadedRecordOffsets.clear();
+        }
+        if (validLength < 0) {
+            moveUnreadableFile(file);
+            return;
+        }
+        this.file = file;
+
+        // A record torn by an interrupted save must be dropped, otherwise every record appended
+        // after it would be misaligned
+        if (fileLength > validLength) {
+            Worldsinger.LOGGER.warn("Discarding incomplete lunagree record at end of file");
+            try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+                out.setLength(validLength);
+            } catch (IOException e) {
+                // The records before it can still be read, but the file is rewritten on the next
+                // save rather than appended to
+                Worldsinger.LOGGER.error("Failed to repair lunagree data", e);
+                return;
+            }
         }
-        nbt.put(KEY_LUNAGREES, lunagreeDataList);
-        return nbt;
+        this.canAppend = true;
+    }
+
+    // Keeps a file that could not be read for manual recovery, since the next save would
+    // otherwise replace it
+    private void moveUnreadableFile(File file) {
+        File backupFile = new File(file.getPath() + "." + System.currentTimeMillis() + ".bak");
+        try {
+            Files.move(file.toPath(), backupFile.toPath());
+            Worldsinger.LOGGER.warn("Moved unreadable lunagree data to " + backupFile.getName());
+        } catch (IOException e) {
+            Worldsinger.LOGGER.error(
+                    "Failed to move unreadable lunagree data, lunagrees will not be saved", e);
+            this.saveDisabled = true;
+        }
+    }
+
+    // Appends new lunagrees to the end of the file. The whole file is only rewritten if it is new
+    // or could not be appended to.
+    @Override
+    public void saveBytesToFile(File file) {
+        if (saveDisabled) {
+            return;
+        }
+        if (canAppend && file.equals(this.file) && file.exists()) {
+            appendToFile(file);
+        } else {
+            rewriteFile(file);
+        }
+    }
+
+    private void appendToFile(File file) {
+        long previousLength = file.length();
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file, true)))) {
+            for (int i = 0; i < unsavedKeys.size(); ++i) {
+                long key = unsavedKeys.getLong(i);
+                out.writeLong(key);
+                lunagreeMap.get(key).writeBytes(out);
+            }
+        } catch (IOException e) {
+            Worldsinger.LOGGER.error("Failed to save lunagree data", e);
+            // Remove any partial records so that the next save appends to a valid file
+            try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+                out.setLength(previousLength);
+            } catch (IOException e2) {
+                Worldsinger.LOGGER.error("Failed to roll back lunagree data", e2);
+                canAppend = false;
+            }
+            return;
+        }
+        unsavedKeys.clear();
+    }
+
+    // Writes every lunagree to a temporary file first, so the existing file is only replaced once
+    // the new one is complete
+    private void rewriteFile(File file) {
+        // Everything needs to be in memory to write the whole file
+        if (!loadAllRegions()) {
+            Worldsinger.LOGGER.error("Not saving lunagree data, since some could not be loaded");
+            return;
+        }
+        File tempFile = new File(file.getPath() + ".tmp");
+        try {
+            try (FileOutputStream fileOut = new FileOutputStream(tempFile);
+                    DataOutputStream out = new DataOutputStream(
+                            new BufferedOutputStream(fileOut))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(RECORD_SIZE);
+                for (LongIterator iter = lunagreeMap.keySet().iterator(); iter.hasNext(); ) {
+                    long key = iter.nextLong();
+                    out.writeLong(key);
+                    lunagreeMap.get(key).writeBytes(out);
+                }
+                out.flush();
+                fileOut.getFD().sync();
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Worldsinger.LOGGER.error("Failed to save lunagree data", e);
+            tempFile.delete();
+            return;
+        }
+        unsavedKeys.clear();
+        this.file = file;
+        this.canAppend = true;
+    }
+
+    // Imports lunagrees from the old NBT format, if this world has not been migrated yet
+    public void migrateLegacyData(File legacyFile) {
+        if (this.file != null || !legacyFile.exists()) {
+            return;
+        }
+        NbtCompound nbt;
+        try {
+            nbt = NbtIo.readCompressed(legacyFile.toPath(), NbtSizeTracker.ofUnlimitedBytes())
+                    .getCompound(KEY_DATA);
+        } catch (IOException e) {
+            Worldsinger.LOGGER.error("Failed to read legacy lunagree data", e);
+            return;
+        }
+        NbtList lunagreeDataList = nbt.getList(KEY_LUNAGREES, NbtElement.COMPOUND_TYPE);
+        for (NbtElement entryData : lunagreeDataList) {
+            NbtCompound entryCompound = (NbtCompound) entryData;
+            long key = entryCompound.getLong(KEY_CELL);
+            NbtCompound valueData = entryCompound.getCompound(KEY_DATA);
+            LunagreeLocation location = LunagreeLocation.fromNbt(valueData);
+            if (location.rainlineNodes()[0] == null) {
+                Worldsinger.LOGGER.warn(
+                        "Failed to parse rainline nodes for " + LumarLunagreeGenerator.keyToString(
+                                key) + ". Re-generating nodes");
+                Int2[] rainlineNodes = RainlinePath.generateRainlineNodes(location.blockX(),
+                        location.blockZ(), world.getRandom());
+                location.setRainlineNodes(rainlineNodes);
+            }
+            lunagreeMap.put(key, location);
+        }
+        Worldsinger.LOGGER.info("Migrated " + lunagreeMap.size() + " lunagrees to new format");
+        this.markDirty();
+    }
+
+    // Returns a lunagree that has already been generated, loading its region if needed
+    @Nullable
+    private LunagreeLocation getGeneratedLunagree(long key) {
+        LunagreeLocation entry = lunagreeMap.get(key);
+        if (entry == null && !unloadedRecordOffsets.isEmpty()) {
+            loadRegion(LumarLunagreeGenerator.getRegionKey(key));
+            entry = lunagreeMap.get(key);
+        }
+        return entry;
+    }
+
+    private boolean loadRegion(long regionKey) {
+        LongList offsets = unloadedRecordOffsets.remove(regionKey);
+        if (offsets == null || file == null) {
+            return true;
+        }
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            for (int i = 0; i < offsets.size(); ++i) {
+                in.seek(offsets.getLong(i));
+                long key = in.readLong();
+                lunagreeMap.put(key, LunagreeLocation.fromBytes(in));
+            }
+        } catch (IOException e) {
+            // Kept so that the region can be read again, and is not left out of a rewrite
+            Worldsinger.LOGGER.error("Failed to load lunagree data", e);
+            unloadedRecordOffsets.put(regionKey, offsets);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean loadAllRegions() {
+        boolean success = true;
+        LongList regionKeys = new LongArrayList(unloadedRecordOffsets.keySet());
+        for (int i = 0; i < regionKeys.size(); ++i) {
+            success &= loadRegion(regionKeys.getLong(i));
+        }
+        return success;
     }
 
     @Override
@@ -196,6 +414,51 @@ public class LumarLunagreeGenerator extends PersistentState implements LunagreeG
         return LumarLunagreeGenerator.getHexCellForBlockPos(blockX, blockZ);
     }
 
+    @Override
+    public boolean isChunkInSporefallZone(int chunkX, int chunkZ) {
+        long chunkKey = ChunkPos.toLong(chunkX, chunkZ);
+        if (sporefallChunks.containsKey(chunkKey)) {
+            return sporefallChunks.getAndMoveToLast(chunkKey);
+        }
+        boolean inZone = calculateIsChunkInSporefallZone(chunkX, chunkZ);
+        sporefallChunks.putAndMoveToLast(chunkKey, inZone);
+        if (sporefallChunks.size() > MAX_CACHED_SPOREFALL_CHUNKS) {
+            sporefallChunks.removeFirstBoolean();
+        }
+        return inZone;
+    }
+
+    // Cells are much larger than the spore fall radius, so checking the lunagrees around the
+    // center of the chunk is enough
+    private boolean calculateIsChunkInSporefallZone(int chunkX, int chunkZ) {
+        int minX = ChunkSectionPos.getBlockCoord(chunkX);
+        int minZ = ChunkSectionPos.getBlockCoord(chunkZ);
+        int maxX = minX + 15;
+        int maxZ = minZ + 15;
+        List<LunagreeLocation> candidates = getLunagreesNearPos(minX + 8, minZ + 8);
+        for (LunagreeLocation location : candidates) {
+            int deltaX = MathHelper.clamp(location.blockX(), minX, maxX) - location.blockX();
+            int deltaZ = MathHelper.clamp(location.blockZ(), minZ, maxZ) - location.blockZ();
+            if (deltaX * deltaX + deltaZ * deltaZ < SPORE_FALL_RADIUS * SPORE_FALL_RADIUS) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Chunks near a newly generated lunagree may have been cached as outside of any zone
+    private void invalidateSporefallChunks(LunagreeLocation location) {
+        int minChunkX = ChunkSectionPos.getSectionCoord(location.blockX() - SPORE_FALL_RADIUS);
+        int maxChunkX = ChunkSectionPos.getSectionCoord(location.blockX() + SPORE_FALL_RADIUS);
+        int minChunkZ = ChunkSectionPos.getSectionCoord(location.blockZ() - SPORE_FALL_RADIUS);
+        int maxChunkZ = ChunkSectionPos.getSectionCoord(location.blockZ() + SPORE_FALL_RADIUS);
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; ++chunkX) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; ++chunkZ) {
+                sporefallChunks.remove(ChunkPos.toLong(chunkX, chunkZ));
+            }
+        }
+    }
+
     @Override
     public long[] getNeighborKeys(long centerKey) {
         long[] neighborKeys = new long[DIRECTION_Q.length];
@@ -210,23 +473,56 @@ public class LumarLunagreeGenerator extends PersistentState implements LunagreeG
         return neighborKeys;
     }
 
+    // Lunagrees are generated asynchronously, so this returns null until generation finishes
     @Override
     public LunagreeLocation getLunagreeForKey(long key, boolean shouldCreate) {
-        LunagreeLocation entry = lunagreeMap.get(key);
+        LunagreeLocation entry = getGeneratedLunagree(key);
         if (entry == null && shouldCreate) {
-            entry = generateLunagreeFor(key);
-            lunagreeMap.put(key, entry);
-            this.markDirty();
+            getOrCreateLunagreeAsync(key);
         }
         return entry;
     }
 
-    // Triggered when the player loads new chunks. This can also generate new lunagrees.
+    @Override
+    public CompletableFuture<LunagreeLocation> getOrCreateLunagreeAsync(long key) {
+        LunagreeLocation entry = getGeneratedLunagree(key);
+        if (entry != null) {
+            return CompletableFuture.completedFuture(entry);
+        }
+        CompletableFuture<LunagreeLocation> pending = pendingLunagrees.get(key);
+        if (pending != null) {
+            return pending;
+        }
+        pending = generateLunagreeAsync(key);
+        // May have already completed on this thread, in which case it is already in the map
+        if (!pending.isDone()) {
+            pendingLunagrees.put(key, pending);
+        }
+        return pending;
+    }
+
+    // Triggered when the player loads new chunks. This can also generate new lunagrees, in which
+    // case the data is sent once they are all ready.
     @Override
     public void updateLunagreeDataForPlayer(ServerPlayerEntity player) {
         long key = getKeyForPos(player.getBlockX(), player.getBlockZ());
-        List<LunagreeLocation> locations = getNeighboringLunagrees(key, true, true);
-        ServerPlayNetworking.send(player, new LunagreeSyncPayload(locations));
+        long[] neighborKeys = getNeighborKeys(key);
+        List<CompletableFuture<LunagreeLocation>> futures = new ArrayList<>(
+                neighborKeys.length + 1);
+        futures.add(getOrCreateLunagreeAsync(key));
+        for (long neighborKey : neighborKeys) {
+            futures.add(getOrCreateLunagreeAsync(neighborKey));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenRunAsync(() -> {
+                    // A newer update is already on its way if the player moved or left
+                    if (player.isRemoved() || getKeyForPos(player.getBlockX(), player.getBlockZ())
+                            != key) {
+                        return;
+                    }
+                    List<LunagreeLocation> locations = getNeighboringLunagrees(key, true, false);
+                    ServerPlayNetworking.send(player, new LunagreeSyncPayload(locations));
+                }, world.getServer());
     }
 
     private IntSet generatePossibleSporeIds(int q, int r) {
@@ -248,18 +544,52 @@ public class LumarLunagreeGenerator extends PersistentState implements LunagreeG
         return possibleSporeIds;
     }
 
-    @NotNull
-    private LunagreeLocation generateLunagreeFor(long key) {
+    // Searching for a position is expensive, so it is done on a worker thread. The rest uses the
+    // world random and modifies state, so it is done back on the server thread.
+    private CompletableFuture<LunagreeLocation> generateLunagreeAsync(long key) {
+        return CompletableFuture.supplyAsync(() -> locateLunagreePos(key),
+                Util.getMainWorkerExecutor()).handleAsync((result, throwable) -> {
+            if (throwable != null) {
+                // Allow it to be attempted again later
+                pendingLunagrees.remove(key);
+                Worldsinger.LOGGER.error(
+                        "Failed to generate lunagree for " + LumarLunagreeGenerator.keyToString(
+                                key), throwable);
+                throw new CompletionException(throwable);
+            }
+            LunagreeLocation entry = generateLunagreeFor(key, result);
+            pendingLunagrees.remove(key);
+            addGeneratedLunagree(key, entry);
+            return entry;
+        }, world.getServer());
+    }
+
+    void addGeneratedLunagree(long key, LunagreeLocation entry) {
+        lunagreeMap.put(key, entry);
+        unsavedKeys.add(key);
+        invalidateSporefallChunks(entry);
+        this.markDirty();
+    }
+
+    @Nullable
+    private Pair<BlockPos, SporeSeaEntry> locateLunagreePos(long key) {
         int q = LumarLunagreeGenerator.getQ(key);
         int r = LumarLunagreeGenerator.getR(key);
-
-        // Find a good position
         IntSet possibleSporeIds = generatePossibleSporeIds(q, r);
         int centerX = LumarLunagreeGenerator.getCenterXForHexCell(q, r);
         int centerZ = LumarLunagreeGenerator.getCenterZForHexCell(q, r);
-        Pair<BlockPos, SporeSeaEntry> result = LocateSporeSeaCommand.locateSporeSea(world, centerX,
-                centerZ, SEARCH_RADIUS, SEARCH_CHECK_INTERVAL, false, possibleSporeIds,
+        return LocateSporeSeaCommand.locateSporeSea(world, centerX, centerZ, SEARCH_RADIUS,
+                SEARCH_CHECK_INTERVAL, false, possibleSporeIds,
                 biome -> ModBiomes.DEEP_SPORE_SEA.equals(biome.getKey().orElse(null)));
+    }
+
+    @NotNull
+    private LunagreeLocation generateLunagreeFor(long key,
+            @Nullable Pair<BlockPos, SporeSeaEntry> result) {
+        int q = LumarLunagreeGenerator.getQ(key);
+        int r = LumarLunagreeGenerator.getR(key);
+        int centerX = LumarLunagreeGenerator.getCenterXForHexCell(q, r);
+        int centerZ = LumarLunagreeGenerator.getCenterZForHexCell(q, r);
 
         int lunagreeX;
         int lunagreeZ;
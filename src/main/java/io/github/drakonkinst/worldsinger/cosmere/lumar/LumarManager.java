@@ -26,6 +26,7 @@ package io.github.drakonkinst.worldsinger.cosmere.lumar;
 
 import com.mojang.datafixers.util.Pair;
 import io.github.drakonkinst.worldsinger.Worldsinger;
+import io.github.drakonkinst.worldsinger.WorldsingerConfig;
 import io.github.drakonkinst.worldsinger.command.LocateSporeSeaCommand;
 import io.github.drakonkinst.worldsinger.cosmere.CosmereWorldAccess;
 import io.github.drakonkinst.worldsinger.cosmere.CosmereWorldData;
@@ -35,6 +36,7 @@ import java.time.Duration;
 import java.time.Instant;
 import net.minecraft.registry.RegistryKeys;
 import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Util;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.Heightmap;
 import net.minecraft.world.gen.feature.MiscConfiguredFeatures;
@@ -48,8 +50,10 @@ public class LumarManager {
 
     private static Pair<BlockPos, SporeSeaEntry> searchForSpawnPos(ServerWorld lumar,
             IntSet validSporeSeaIds) {
-        return LocateSporeSeaCommand.locateSporeSea(lumar, 0, 0, SPAWN_SEARCH_RADIUS,
-                SPAWN_SEARCH_INTERVAL, true, validSporeSeaIds, biome -> true);
+        return LocateSporeSeaCommand.locateSporeSeaInParallel(lumar, 0, 0, SPAWN_SEARCH_RADIUS,
+                SPAWN_SEARCH_INTERVAL, true, validSporeSeaIds, biome -> true,
+                Util.getMainWorkerExecutor(),
+                WorldsingerConfig.instance().getSpawnSearchTimeoutMillis());
     }
 
     public static BlockPos generateOrFetchStartingPos(ServerWorld world) {
@@ -111,17 +115,20 @@ public class LumarManager {
     private final SeetheManager seetheManager;
     private final LunagreeGenerator lunagreeGenerator;
     private final RainlineManager rainlineManager;
+    private final LunagreePrefetcher lunagreePrefetcher;
 
     public LumarManager(SeetheManager seetheManager, LunagreeGenerator lunagreeGenerator,
             RainlineManager rainlineManager) {
         this.seetheManager = seetheManager;
         this.lunagreeGenerator = lunagreeGenerator;
         this.rainlineManager = rainlineManager;
+        this.lunagreePrefetcher = new LunagreePrefetcher(lunagreeGenerator);
     }
 
     public void serverTick(ServerWorld world) {
         // Seethe ticks are handled by weather
         rainlineManager.serverTick(world);
+        lunagreePrefetcher.serverTick(world);
     }
 
     public SeetheManager getSeetheManager() {
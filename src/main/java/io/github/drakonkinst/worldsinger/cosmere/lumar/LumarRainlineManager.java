@@ -37,9 +37,7 @@ import io.github.drakonkinst.worldsinger.worldgen.lumar.LumarChunkGenerator;
 import io.github.drakonkinst.worldsinger.worldgen.lumar.LumarChunkGenerator.SporeSeaEntry;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
-import it.unimi.dsi.fastutil.longs.LongByteMutablePair;
-import it.unimi.dsi.fastutil.longs.LongBytePair;
-import java.util.ArrayList;
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -48,11 +46,9 @@ import net.minecraft.datafixer.DataFixTypes;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.map.MapState;
 import net.minecraft.nbt.NbtCompound;
-import net.minecraft.predicate.entity.EntityPredicates;
 import net.minecraft.registry.RegistryWrapper.WrapperLookup;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
-import net.minecraft.util.TypeFilter;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec2f;
 import net.minecraft.util.math.random.Random;
@@ -73,6 +69,8 @@ public class LumarRainlineManager extends PersistentState implements RainlineMan
     private static final int WANDERING_RAINLINE_MAX_SPAWN_DISTANCE = 80;
     private static final float MIN_RAINLINE_SPAWN_SEPARATION = 64.0f;
 
+    private static final int MAX_CACHED_MAP_LAYERS = 1024;
+
     public static final String NAME = "rainlines";
     private static final String KEY_SPAWN_DELAY = "spawn_delay";
 
@@ -89,6 +87,11 @@ public class LumarRainlineManager extends PersistentState implements RainlineMan
     }
 
     private final Long2ObjectMap<RainlinePath> rainlinePaths = new Long2ObjectOpenHashMap<>();
+    private final RainlineIndex rainlineIndex = new RainlineIndex();
+    // Icons for each lunagree cell, as seen from a particular map. Rainline paths never change
+    // once created, so layers only leave the cache when evicted
+    private final Object2ObjectLinkedOpenHashMap<MapLayerKey, Map<String, Decoration>>
+            mapLayerCache = new Object2ObjectLinkedOpenHashMap<>();
     private final LunagreeGenerator generator;
     private int spawnDelay;
 
@@ -109,64 +112,92 @@ public class LumarRainlineManager extends PersistentState implements RainlineMan
         long key = generator.getKeyForPos(mapState.centerX, mapState.centerZ);
         long[] neighborKeys = generator.getNeighborKeys(key);
 
-        int totalNumAdded = 0;
-        RainlinePath centerPath = getOrCreateRainlineData(key);
-        totalNumAdded += centerPath.applyMapDecorations(world, decorations, mapState, 1);
+        int totalNumAdded = applyMapLayer(world, decorations, mapState, key, 1);
         for (int i = 0; i < neighborKeys.length; ++i) {
-            long neighborKey = neighborKeys[i];
-            RainlinePath neighborPath = getOrCreateRainlineData(neighborKey);
-            int numAdded = neighborPath.applyMapDecorations(world, decorations, mapState, i + 2);
-            totalNumAdded += numAdded;
+            totalNumAdded += applyMapLayer(world, decorations, mapState, neighborKeys[i], i + 2);
         }
         // Worldsinger.LOGGER.info("Applying " + totalNumAdded + " rainline icons to map");
         return totalNumAdded;
     }
 
+    private int applyMapLayer(ServerWorld world, Map<String, Decoration> decorations,
+            MapState mapState, long cellKey, int cellNeighborIndex) {
+        RainlinePath path = getOrCreateRainlineData(cellKey);
+        if (path == null) {
+            return 0;
+        }
+        MapLayerKey layerKey = new MapLayerKey(mapState.centerX, mapState.centerZ, mapState.scale,
+                cellKey);
+        Map<String, Decoration> layer = mapLayerCache.getAndMoveToLast(layerKey);
+        if (layer == null) {
+            layer = path.createMapDecorations(world.getChunkManager().getNoiseConfig(), mapState,
+                    cellNeighborIndex);
+            mapLayerCache.putAndMoveToLast(layerKey, layer);
+            if (mapLayerCache.size() > MAX_CACHED_MAP_LAYERS) {
+                mapLayerCache.removeFirst();
+            }
+        }
+        decorations.putAll(layer);
+        return layer.size();
+    }
+
     @Override
     public @Nullable RainlinePath getRainlinePathById(long id) {
         return rainlinePaths.get(id);
     }
 
+    @Override
+    public void onRainlineLoaded(RainlineEntity entity) {
+        rainlineIndex.add(entity);
+    }
+
+    @Override
+    public void onRainlineUnloaded(RainlineEntity entity) {
+        rainlineIndex.remove(entity);
+    }
+
+    @Override
+    public void onRainlineMoved(RainlineEntity entity) {
+        rainlineIndex.update(entity);
+    }
+
+    @Override
+    public boolean isColumnCoveredByRainline(int blockX, int blockZ) {
+        return rainlineIndex.isColumnCovered(blockX, blockZ);
+    }
+
     private void doRainlineTick(ServerWorld world) {
-        List<RainlineEntity> rainlineEntities = new ArrayList<>();
-        world.collectEntitiesByType(TypeFilter.instanceOf(RainlineEntity.class),
-                EntityPredicates.VALID_ENTITY, rainlineEntities);
-        // Worldsinger.LOGGER.info("Found " + rainlineEntities.size() + " active rainline entities: "
-        //         + rainlineEntities);
-        doRainlinePathsTick(world, rainlineEntities);
-        doRainlineWanderingTick(world, rainlineEntities);
+        // Worldsinger.LOGGER.info("Found " + rainlineIndex.size() + " active rainline entities");
+        doRainlinePathsTick(world);
+        doRainlineWanderingTick(world);
     }
 
-    private void doRainlinePathsTick(ServerWorld world, List<RainlineEntity> rainlineEntities) {
-        Set<LongBytePair> existingPathIds = removeDuplicateRainlinePaths(rainlineEntities);
+    private void doRainlinePathsTick(ServerWorld world) {
         Set<LunagreeLocation> lunagreeLocations = getLunagreeLocationsToUpdate(world);
         for (LunagreeLocation location : lunagreeLocations) {
-            spawnRainlinesForLocation(world, location, existingPathIds);
+            spawnRainlinesForLocation(world, location);
         }
     }
 
-    private void spawnRainlinesForLocation(ServerWorld world, LunagreeLocation location,
-            Set<LongBytePair> existingPathIds) {
+    private void spawnRainlinesForLocation(ServerWorld world, LunagreeLocation location) {
         long locationId = generator.getKeyForPos(location.blockX(), location.blockZ());
         RainlinePath path = rainlinePaths.get(locationId);
         if (path == null) {
             return;
         }
-        LongBytePair pathId = new LongByteMutablePair(locationId, (byte) -1);
         for (int pathIndex = 0; pathIndex < NUM_RAINLINES_PER_LUNAGREE; ++pathIndex) {
-            pathId.second((byte) pathIndex);
-            ensureRainlineIsSpawned(world, pathId, path, existingPathIds);
+            ensureRainlineIsSpawned(world, locationId, (byte) pathIndex, path);
         }
     }
 
-    private void ensureRainlineIsSpawned(ServerWorld world, LongBytePair pathId, RainlinePath path,
-            Set<LongBytePair> existingPathIds) {
+    private void ensureRainlineIsSpawned(ServerWorld world, long locationId, byte pathIndex,
+            RainlinePath path) {
         // Check if a rainline following that path already exists
-        if (existingPathIds.contains(pathId)) {
+        if (rainlineIndex.hasRainlineForPath(locationId, pathIndex)) {
             return;
         }
         // Check if position is loaded in the world
-        int stepOffset = path.getStepOffset(pathId.secondByte());
+        int stepOffset = path.getStepOffset(pathIndex);
         if (stepOffset < 0) {
             return;
         }
@@ -183,8 +214,8 @@ public class LumarRainlineManager extends PersistentState implements RainlineMan
             return;
         }
 
-        boolean success = spawnRainlineFollowingPath(world, rainlinePos, path, pathId.firstLong(),
-                pathId.secondByte());
+        boolean success = spawnRainlineFollowingPath(world, rainlinePos, path, locationId,
+                pathIndex);
         if (success) {
             Worldsinger.LOGGER.info("Spawning rainline at ({}, {})", blockX, blockZ);
         } else {
@@ -209,7 +240,7 @@ public class LumarRainlineManager extends PersistentState implements RainlineMan
         return world.spawnEntity(rainlineEntity);
     }
 
-    private void doRainlineWanderingTick(ServerWorld world, List<RainlineEntity> rainlineEntities) {
+    private void doRainlineWanderingTick(ServerWorld world) {
         if (world.getTime() % WANDERING_RAINLINE_UPDATE_INTERVAL != 0) {
             return;
         }
@@ -220,13 +251,12 @@ public class LumarRainlineManager extends PersistentState implements RainlineMan
         }
         spawnDelay -= WANDERING_RAINLINE_SPAWN_INTERVAL;
         // Worldsinger.LOGGER.info("Attempting to spawn wandering rainline");
-        if (!attemptSpawnWanderingRainline(world, rainlineEntities)) {
+        if (!attemptSpawnWanderingRainline(world)) {
             spawnDelay += WANDERING_RAINLINE_SPAWN_FAIL_BONUS;
         }
     }
 
-    private boolean attemptSpawnWanderingRainline(ServerWorld world,
-            List<RainlineEntity> rainlineEntities) {
+    private boolean attemptSpawnWanderingRainline(ServerWorld world) {
         int numPlayers = world.getPlayers().size();
         if (numPlayers == 0) {
             return false;
@@ -237,13 +267,8 @@ public class LumarRainlineManager extends PersistentState implements RainlineMan
         int spawnX = playerPos.getX() + getRandomSpawnOffset(random);
         int spawnZ = playerPos.getZ() + getRandomSpawnOffset(random);
         // Ensure it is not too close to any existing rainline
-        for (RainlineEntity rainlineEntity : rainlineEntities) {
-            double deltaX = rainlineEntity.getX() - spawnX;
-            double deltaZ = rainlineEntity.getZ() - spawnZ;
-            double distSq = deltaX * deltaX + deltaZ * deltaZ;
-            if (distSq > MIN_RAINLINE_SPAWN_SEPARATION * MIN_RAINLINE_SPAWN_SEPARATION) {
-                return false;
-            }
+        if (rainlineIndex.isAnyRainlineWithin(spawnX, spawnZ, MIN_RAINLINE_SPAWN_SEPARATION)) {
+            return false;
         }
         // noinspection deprecation
         if (!world.isPosLoaded(spawnX, spawnZ)) {
@@ -271,20 +296,6 @@ public class LumarRainlineManager extends PersistentState implements RainlineMan
                 random.nextBoolean() ? -1 : 1);
     }
 
-    private Set<LongBytePair> removeDuplicateRainlinePaths(List<RainlineEntity> rainlineEntities) {
-        Set<LongBytePair> existingPathIds = new HashSet<>();
-        List<RainlineEntity> rainlineEntitiesToRemove = new ArrayList<>();
-        for (RainlineEntity entity : rainlineEntities) {
-            if (entity.getRainlineBehavior() instanceof RainlineFollowPathBehavior followPathBehavior) {
-                if (!existingPathIds.add(followPathBehavior.getPathId())) {
-                    rainlineEntitiesToRemove.add(entity);
-                }
-            }
-        }
-        rainlineEntities.removeAll(rainlineEntitiesToRemove);
-        return existingPathIds;
-    }
-
     private Set<LunagreeLocation> getLunagreeLocationsToUpdate(ServerWorld world) {
         Set<LunagreeLocation> lunagreeLocations = new HashSet<>();
         for (ServerPlayerEntity player : world.getPlayers()) {
@@ -295,16 +306,23 @@ public class LumarRainlineManager extends PersistentState implements RainlineMan
         return lunagreeLocations;
     }
 
+    // Returns null if the lunagree is still being generated
+    @Nullable
     private RainlinePath getOrCreateRainlineData(long key) {
         RainlinePath entry = rainlinePaths.get(key);
         if (entry == null) {
             LunagreeLocation lunagreeLocation = generator.getLunagreeForKey(key, true);
+            if (lunagreeLocation == null) {
+                return null;
+            }
             entry = new RainlinePath(lunagreeLocation.rainlineNodes());
             rainlinePaths.put(key, entry);
         }
         return entry;
     }
 
+    private record MapLayerKey(int centerX, int centerZ, byte scale, long cellKey) {}
+
     @Override
     public NbtCompound writeNbt(NbtCompound nbt, WrapperLookup registryLookup) {
         nbt.putInt(KEY_SPAWN_DELAY, spawnDelay);
@@ -25,6 +25,7 @@
 package io.github.drakonkinst.worldsinger.cosmere.lumar;
 
 import io.github.drakonkinst.worldsinger.util.ModConstants;
+import java.util.function.LongSupplier;
 import net.minecraft.datafixer.DataFixTypes;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.registry.RegistryWrapper.WrapperLookup;
@@ -37,7 +38,9 @@ import net.minecraft.world.PersistentState;
 public class LumarSeetheManager extends PersistentState implements SeetheManager {
 
     public static final String NAME = "seethe";
-    private static final String NBT_TICKS_REMAINING = "ticks_remaining";
+    private static final String NBT_NEXT_CYCLE_TIME = "next_cycle_time";
+    // Older saves store a countdown instead of an absolute time
+    private static final String NBT_LEGACY_TICKS_REMAINING = "ticks_remaining";
     private static final String NBT_CYCLES_UNTIL_NEXT_LONG_STILLING = "cycles_until_next_long_stilling";
     private static final String NBT_IS_SEETHING = "is_seething";
 
@@ -50,25 +53,37 @@ public class LumarSeetheManager extends PersistentState implements SeetheManager
     private static final IntProvider STILLING_LONG_CYCLE_PROVIDER = BiasedToBottomIntProvider.create(
             3, 5);
 
-    public static PersistentState.Type<LumarSeetheManager> getPersistentStateType() {
-        return new PersistentState.Type<>(LumarSeetheManager::new,
-                (nbt, registryLookup) -> LumarSeetheManager.fromNbt(nbt), DataFixTypes.LEVEL);
+    // The clock should be the world's game time, which only ever moves forward
+    public static PersistentState.Type<LumarSeetheManager> getPersistentStateType(
+            LongSupplier clock) {
+        return new PersistentState.Type<>(() -> new LumarSeetheManager(clock),
+                (nbt, registryLookup) -> LumarSeetheManager.fromNbt(clock, nbt),
+                DataFixTypes.LEVEL);
     }
 
-    private static LumarSeetheManager fromNbt(NbtCompound nbt) {
-        LumarSeetheManager seetheManager = new LumarSeetheManager();
+    private static LumarSeetheManager fromNbt(LongSupplier clock, NbtCompound nbt) {
+        LumarSeetheManager seetheManager = new LumarSeetheManager(clock);
         seetheManager.isSeething = nbt.getBoolean(NBT_IS_SEETHING);
-        seetheManager.ticksRemaining = nbt.getInt(NBT_TICKS_REMAINING);
+        if (nbt.contains(NBT_NEXT_CYCLE_TIME)) {
+            seetheManager.nextCycleTime = nbt.getLong(NBT_NEXT_CYCLE_TIME);
+        } else {
+            seetheManager.nextCycleTime =
+                    clock.getAsLong() + nbt.getInt(NBT_LEGACY_TICKS_REMAINING);
+            seetheManager.markDirty();
+        }
         seetheManager.cyclesUntilLongStilling = nbt.getInt(NBT_CYCLES_UNTIL_NEXT_LONG_STILLING);
         return seetheManager;
     }
 
     private final Random random = Random.create();
+    private final LongSupplier clock;
     private boolean isSeething;
-    private int ticksRemaining;
+    // Game time at which the current seethe or stilling ends
+    private long nextCycleTime;
     private int cyclesUntilLongStilling;
 
-    public LumarSeetheManager() {
+    public LumarSeetheManager(LongSupplier clock) {
+        this.clock = clock;
         // Default values, can be overridden by saved data
         this.startSeetheForRandomDuration();
         this.cyclesUntilLongStilling = STILLING_LONG_CYCLE_PROVIDER.get(this.random);
@@ -77,7 +92,7 @@ public class LumarSeetheManager extends PersistentState implements SeetheManager
     @Override
     public NbtCompound writeNbt(NbtCompound nbt, WrapperLookup registryLookup) {
         nbt.putBoolean(NBT_IS_SEETHING, isSeething);
-        nbt.putInt(NBT_TICKS_REMAINING, ticksRemaining);
+        nbt.putLong(NBT_NEXT_CYCLE_TIME, nextCycleTime);
         nbt.putInt(NBT_CYCLES_UNTIL_NEXT_LONG_STILLING, cyclesUntilLongStilling);
         return nbt;
     }
@@ -85,7 +100,8 @@ public class LumarSeetheManager extends PersistentState implements SeetheManager
     @Override
     public void startSeethe(int ticks) {
         isSeething = true;
-        ticksRemaining = ticks;
+        nextCycleTime = clock.getAsLong() + ticks;
+        this.markDirty();
     }
 
     @Override
@@ -96,12 +112,13 @@ public class LumarSeetheManager extends PersistentState implements SeetheManager
     @Override
     public void stopSeethe(int ticks) {
         isSeething = false;
-        ticksRemaining = ticks;
+        nextCycleTime = clock.getAsLong() + ticks;
         if (cyclesUntilLongStilling <= 0) {
             cyclesUntilLongStilling = STILLING_LONG_CYCLE_PROVIDER.get(this.random);
         } else {
             --cyclesUntilLongStilling;
         }
+        this.markDirty();
     }
 
     @Override
@@ -117,16 +134,15 @@ public class LumarSeetheManager extends PersistentState implements SeetheManager
 
     @Override
     public void serverTickWeather() {
-        if (ticksRemaining > 0) {
-            --ticksRemaining;
+        // State is derived from the clock, so it only changes (and needs saving) at a boundary
+        if (clock.getAsLong() < nextCycleTime) {
+            return;
+        }
+        if (isSeething) {
+            this.stopSeetheForRandomDuration();
         } else {
-            if (isSeething) {
-                this.stopSeetheForRandomDuration();
-            } else {
-                this.startSeetheForRandomDuration();
-            }
+            this.startSeetheForRandomDuration();
         }
-        this.markDirty();
     }
 
     @Override
@@ -136,6 +152,6 @@ public class LumarSeetheManager extends PersistentState implements SeetheManager
 
     @Override
     public int getTicksUntilNextCycle() {
-        return ticksRemaining;
+        return (int) Math.max(0L, nextCycleTime - clock.getAsLong());
     }
 }
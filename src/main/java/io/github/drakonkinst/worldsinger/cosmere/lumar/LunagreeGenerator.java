@@ -26,6 +26,7 @@ package io.github.drakonkinst.worldsinger.cosmere.lumar;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import net.minecraft.server.network.ServerPlayerEntity;
 import org.jetbrains.annotations.Nullable;
 
@@ -42,9 +43,16 @@ public interface LunagreeGenerator {
     long[] getNeighborKeys(long centerKey);
 
     // Each lunagree contains a LunagreeLocation entry for a key, or null if it cannot be
-    // created or does not exist.
+    // created or does not exist. If it should be created, this may only start generating it.
     LunagreeLocation getLunagreeForKey(long key, boolean shouldCreate);
 
+    // Returns the LunagreeLocation entry for a key once it has been generated. Futures complete on
+    // the server thread.
+    CompletableFuture<LunagreeLocation> getOrCreateLunagreeAsync(long key);
+
+    // Cheap check for whether any part of a chunk may be within spore fall range of a lunagree
+    boolean isChunkInSporefallZone(int chunkX, int chunkZ);
+
     // Called when a player's key changes
     void updateLunagreeDataForPlayer(ServerPlayerEntity player);
 
@@ -25,6 +25,9 @@
 package io.github.drakonkinst.worldsinger.cosmere.lumar;
 
 import io.github.drakonkinst.worldsinger.util.math.Int2;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
 import net.minecraft.nbt.NbtIntArray;
@@ -38,6 +41,9 @@ public record LunagreeLocation(int blockX, int blockZ, int sporeId, Int2[] rainl
     private static final String KEY_ID = "id";
     private static final String KEY_RAINLINE = "rainlinePath";
 
+    // Size of the fixed-width binary format
+    public static final int BYTE_SIZE = (3 + 2 * RainlinePath.RAINLINE_NODE_COUNT) * Integer.BYTES;
+
     public static LunagreeLocation fromPacket(PacketByteBuf buf) {
         int blockX = buf.readVarInt();
         int blockZ = buf.readVarInt();
@@ -62,6 +68,29 @@ public record LunagreeLocation(int blockX, int blockZ, int sporeId, Int2[] rainl
         }
     }
 
+    public static LunagreeLocation fromBytes(DataInput in) throws IOException {
+        int blockX = in.readInt();
+        int blockZ = in.readInt();
+        int sporeId = in.readInt();
+        Int2[] rainlineNodes = new Int2[RainlinePath.RAINLINE_NODE_COUNT];
+        for (int i = 0; i < RainlinePath.RAINLINE_NODE_COUNT; ++i) {
+            int x = in.readInt();
+            int y = in.readInt();
+            rainlineNodes[i] = new Int2(x, y);
+        }
+        return new LunagreeLocation(blockX, blockZ, sporeId, rainlineNodes);
+    }
+
+    public void writeBytes(DataOutput out) throws IOException {
+        out.writeInt(blockX);
+        out.writeInt(blockZ);
+        out.writeInt(sporeId);
+        for (int i = 0; i < RainlinePath.RAINLINE_NODE_COUNT; ++i) {
+            out.writeInt(rainlineNodes[i].x());
+            out.writeInt(rainlineNodes[i].y());
+        }
+    }
+
     public static LunagreeLocation fromNbt(NbtCompound nbt) {
         int sporeId = nbt.getInt(KEY_ID);
         int x = nbt.getInt(KEY_X);
@@ -0,0 +1,125 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023-2024 Drakonkinst
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.drakonkinst.worldsinger.cosmere.lumar;
+
+import io.github.drakonkinst.worldsinger.WorldsingerConfig;
+import io.github.drakonkinst.worldsinger.util.ModConstants;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+
+// Requests lunagrees ahead of players in the direction they are travelling, so that they are
+// usually done generating by the time the player arrives.
+public class LunagreePrefetcher {
+
+    private static final int UPDATE_INTERVAL = ModConstants.SECONDS_TO_TICKS;
+    private static final int LOOKAHEAD_TICKS = 30 * ModConstants.SECONDS_TO_TICKS;
+    // In blocks per tick. Slower players are handled by the regular update when their key changes,
+    // and faster players were probably teleported
+    private static final double MIN_SPEED = 0.1;
+    private static final double MAX_SPEED = 10.0;
+
+    private final LunagreeGenerator generator;
+    private final Map<UUID, Vec3d> lastPlayerPositions = new HashMap<>();
+    private final LongLinkedOpenHashSet queuedKeys = new LongLinkedOpenHashSet();
+    // Requests that have been started but not completed, only accessed from the server thread
+    private int numInFlight = 0;
+
+    public LunagreePrefetcher(LunagreeGenerator generator) {
+        this.generator = generator;
+    }
+
+    public void serverTick(ServerWorld world) {
+        if (generator.isNull()) {
+            return;
+        }
+        if (world.getTime() % UPDATE_INTERVAL == 0) {
+            queuePredictedKeys(world);
+        }
+        drainQueue();
+    }
+
+    private void queuePredictedKeys(ServerWorld world) {
+        Map<UUID, Vec3d> playerPositions = new HashMap<>();
+        for (ServerPlayerEntity player : world.getPlayers()) {
+            Vec3d pos = player.getPos();
+            Vec3d lastPos = lastPlayerPositions.get(player.getUuid());
+            playerPositions.put(player.getUuid(), pos);
+            if (lastPos == null) {
+                continue;
+            }
+
+            double velocityX = (pos.getX() - lastPos.getX()) / UPDATE_INTERVAL;
+            double velocityZ = (pos.getZ() - lastPos.getZ()) / UPDATE_INTERVAL;
+            double speedSq = velocityX * velocityX + velocityZ * velocityZ;
+            if (speedSq < MIN_SPEED * MIN_SPEED || speedSq > MAX_SPEED * MAX_SPEED) {
+                continue;
+            }
+
+            int predictedX = MathHelper.floor(pos.getX() + velocityX * LOOKAHEAD_TICKS);
+            int predictedZ = MathHelper.floor(pos.getZ() + velocityZ * LOOKAHEAD_TICKS);
+            long predictedKey = generator.getKeyForPos(predictedX, predictedZ);
+            queueIfMissing(predictedKey);
+            for (long neighborKey : generator.getNeighborKeys(predictedKey)) {
+                queueIfMissing(neighborKey);
+            }
+        }
+        // Also forgets players that have left the world
+        lastPlayerPositions.clear();
+        lastPlayerPositions.putAll(playerPositions);
+    }
+
+    private void queueIfMissing(long key) {
+        if (generator.getLunagreeForKey(key, false) == null) {
+            queuedKeys.add(key);
+        }
+    }
+
+    // Starting a request is cheap, but each one costs a search on a worker thread and some work
+    // on the server thread when it completes. Limiting how many run at once bounds both, and
+    // leaves the rest of the queue for later ticks.
+    private void drainQueue() {
+        if (queuedKeys.isEmpty()) {
+            return;
+        }
+        int maxInFlight = Math.max(1,
+                WorldsingerConfig.instance().getLunagreePrefetchMaxInFlight());
+        while (!queuedKeys.isEmpty() && numInFlight < maxInFlight) {
+            CompletableFuture<LunagreeLocation> future = generator.getOrCreateLunagreeAsync(
+                    queuedKeys.removeFirstLong());
+            if (future.isDone()) {
+                continue;
+            }
+            // Completes on the server thread
+            ++numInFlight;
+            future.whenComplete((location, throwable) -> --numInFlight);
+        }
+    }
+}
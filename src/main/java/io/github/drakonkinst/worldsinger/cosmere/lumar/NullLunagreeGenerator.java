@@ -24,6 +24,7 @@
 
 package io.github.drakonkinst.worldsinger.cosmere.lumar;
 
+import java.util.concurrent.CompletableFuture;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 public class NullLunagreeGenerator implements LunagreeGenerator {
@@ -43,6 +44,16 @@ public class NullLunagreeGenerator implements LunagreeGenerator {
         return null;
     }
 
+    @Override
+    public CompletableFuture<LunagreeLocation> getOrCreateLunagreeAsync(long key) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public boolean isChunkInSporefallZone(int chunkX, int chunkZ) {
+        return false;
+    }
+
     @Override
     public void updateLunagreeDataForPlayer(ServerPlayerEntity player) {
         // Do nothing
@@ -24,6 +24,7 @@
 
 package io.github.drakonkinst.worldsinger.cosmere.lumar;
 
+import io.github.drakonkinst.worldsinger.entity.rainline.RainlineEntity;
 import io.github.drakonkinst.worldsinger.item.map.CustomMapDecorationsComponent.Decoration;
 import java.util.Map;
 import net.minecraft.item.map.MapState;
@@ -47,4 +48,24 @@ public class NullRainlineManager implements RainlineManager {
     public @Nullable RainlinePath getRainlinePathById(long id) {
         return null;
     }
+
+    @Override
+    public void onRainlineLoaded(RainlineEntity entity) {
+        // Do nothing
+    }
+
+    @Override
+    public void onRainlineUnloaded(RainlineEntity entity) {
+        // Do nothing
+    }
+
+    @Override
+    public void onRainlineMoved(RainlineEntity entity) {
+        // Do nothing
+    }
+
+    @Override
+    public boolean isColumnCoveredByRainline(int blockX, int blockZ) {
+        return false;
+    }
 }
@@ -0,0 +1,281 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023-2024 Drakonkinst
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.drakonkinst.worldsinger.cosmere.lumar;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongByteMutablePair;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongBytePair;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2LongMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import java.util.List;
+import java.util.Objects;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import org.jetbrains.annotations.Nullable;
+
+// Tracks loaded rainline entities in a world, so they never need to be collected from the
+// entity list. Entries are added and removed through entity load events, and moved each tick.
+// Also tracks which block columns are within the effect radius of any rainline.
+public class RainlineIndex {
+
+    // Rainline entities, kept abstract so the index does not depend on a loaded world
+    public interface IndexedRainline {
+
+        double getX();
+
+        double getZ();
+
+        // The path this rainline is following, or null if it is not following one
+        @Nullable
+        LongBytePair getFollowedPathId();
+    }
+
+    // Rainlines are sparse, so each grid cell covers a large area
+    public static final int CELL_SHIFT = 6;
+    private static final long NO_CELL = Long.MIN_VALUE;
+
+    private final Object2ObjectMap<LongBytePair, IndexedRainline> pathRainlines =
+            new Object2ObjectOpenHashMap<>();
+    // The path each rainline was indexed under, which may differ from its current behavior
+    private final Reference2ObjectMap<IndexedRainline, LongBytePair> entityPaths =
+            new Reference2ObjectOpenHashMap<>();
+    private final Long2ObjectMap<List<IndexedRainline>> grid = new Long2ObjectOpenHashMap<>();
+    private final Reference2LongMap<IndexedRainline> entityCells =
+            new Reference2LongOpenHashMap<>();
+    private final LongByteMutablePair lookupPathId = new LongByteMutablePair(0L, (byte) 0);
+
+    // Number of rainlines covering each block column, so overlapping rainlines are handled
+    private final Long2IntOpenHashMap columnCoverage = new Long2IntOpenHashMap();
+    private final Reference2ObjectMap<IndexedRainline, LongArrayList> entityCoverage =
+            new Reference2ObjectOpenHashMap<>();
+    private LongArrayList scratchCoverage = new LongArrayList();
+
+    public RainlineIndex() {
+        entityCells.defaultReturnValue(NO_CELL);
+    }
+
+    // Uses the same check as before, comparing against the center of the block column
+    private static void collectCoveredColumns(double x, double z, LongList columns) {
+        final int radius = RainlineManager.RAINLINE_EFFECT_RADIUS;
+        final int radiusSq = radius * radius;
+        int minX = MathHelper.ceil(x - radius - 0.5);
+        int maxX = MathHelper.floor(x + radius - 0.5);
+        int minZ = MathHelper.ceil(z - radius - 0.5);
+        int maxZ = MathHelper.floor(z + radius - 0.5);
+        for (int blockX = minX; blockX <= maxX; ++blockX) {
+            double deltaX = blockX + 0.5 - x;
+            for (int blockZ = minZ; blockZ <= maxZ; ++blockZ) {
+                double deltaZ = blockZ + 0.5 - z;
+                if (deltaX * deltaX + deltaZ * deltaZ <= radiusSq) {
+                    columns.add(ChunkPos.toLong(blockX, blockZ));
+                }
+            }
+        }
+    }
+
+    private static long getCellKey(double x, double z) {
+        return ChunkPos.toLong(MathHelper.floor(x) >> CELL_SHIFT,
+                MathHelper.floor(z) >> CELL_SHIFT);
+    }
+
+    public void add(IndexedRainline entity) {
+        if (entityCells.containsKey(entity)) {
+            return;
+        }
+        long cellKey = getCellKey(entity.getX(), entity.getZ());
+        entityCells.put(entity, cellKey);
+        grid.computeIfAbsent(cellKey, key -> new ObjectArrayList<>()).add(entity);
+
+        addPath(entity, entity.getFollowedPathId());
+
+        LongArrayList coverage = new LongArrayList();
+        collectCoveredColumns(entity.getX(), entity.getZ(), coverage);
+        addCoverage(coverage);
+        entityCoverage.put(entity, coverage);
+    }
+
+    public void remove(IndexedRainline entity) {
+        long cellKey = entityCells.removeLong(entity);
+        if (cellKey == NO_CELL) {
+            return;
+        }
+        removeFromCell(entity, cellKey);
+        LongArrayList coverage = entityCoverage.remove(entity);
+        if (coverage != null) {
+            removeCoverage(coverage);
+        }
+
+        removePath(entity);
+    }
+
+    public void update(IndexedRainline entity) {
+        long prevCellKey = entityCells.getLong(entity);
+        if (prevCellKey == NO_CELL) {
+            return;
+        }
+        // Rainlines can stop following their path, which should allow it to spawn a new one
+        LongBytePair pathId = entity.getFollowedPathId();
+        if (!Objects.equals(pathId, entityPaths.get(entity))) {
+            removePath(entity);
+            addPath(entity, pathId);
+        }
+        updateCoverage(entity);
+        long cellKey = getCellKey(entity.getX(), entity.getZ());
+        if (cellKey == prevCellKey) {
+            return;
+        }
+        removeFromCell(entity, prevCellKey);
+        entityCells.put(entity, cellKey);
+        grid.computeIfAbsent(cellKey, key -> new ObjectArrayList<>()).add(entity);
+    }
+
+    public boolean hasRainlineForPath(long lunagreeKey, byte pathIndex) {
+        lookupPathId.first(lunagreeKey).second(pathIndex);
+        return pathRainlines.containsKey(lookupPathId);
+    }
+
+    @Nullable
+    public IndexedRainline getNearestRainline(double x, double z, double radius) {
+        double radiusSq = radius * radius;
+        double minDistSq = Double.MAX_VALUE;
+        IndexedRainline nearestEntity = null;
+
+        int minCellX = MathHelper.floor(x - radius) >> CELL_SHIFT;
+        int maxCellX = MathHelper.floor(x + radius) >> CELL_SHIFT;
+        int minCellZ = MathHelper.floor(z - radius) >> CELL_SHIFT;
+        int maxCellZ = MathHelper.floor(z + radius) >> CELL_SHIFT;
+        for (int cellX = minCellX; cellX <= maxCellX; ++cellX) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; ++cellZ) {
+                List<IndexedRainline> entities = grid.get(ChunkPos.toLong(cellX, cellZ));
+                if (entities == null) {
+                    continue;
+                }
+                for (int i = 0; i < entities.size(); ++i) {
+                    IndexedRainline entity = entities.get(i);
+                    double deltaX = entity.getX() - x;
+                    double deltaZ = entity.getZ() - z;
+                    double distSq = deltaX * deltaX + deltaZ * deltaZ;
+                    if (distSq <= radiusSq && distSq < minDistSq) {
+                        minDistSq = distSq;
+                        nearestEntity = entity;
+                    }
+                }
+            }
+        }
+        return nearestEntity;
+    }
+
+    public boolean isColumnCovered(int blockX, int blockZ) {
+        return columnCoverage.get(ChunkPos.toLong(blockX, blockZ)) > 0;
+    }
+
+    public boolean isAnyRainlineWithin(double x, double z, double radius) {
+        return getNearestRainline(x, z, radius) != null;
+    }
+
+    public int size() {
+        return entityCells.size();
+    }
+
+    private void updateCoverage(IndexedRainline entity) {
+        LongArrayList prevCoverage = entityCoverage.get(entity);
+        if (prevCoverage == null) {
+            return;
+        }
+        LongArrayList coverage = scratchCoverage;
+        coverage.clear();
+        collectCoveredColumns(entity.getX(), entity.getZ(), coverage);
+        // Most ticks do not move the rainline far enough to change the covered columns
+        if (coverage.equals(prevCoverage)) {
+            return;
+        }
+        removeCoverage(prevCoverage);
+        addCoverage(coverage);
+        entityCoverage.put(entity, coverage);
+        scratchCoverage = prevCoverage;
+    }
+
+    private void addCoverage(LongList columns) {
+        for (int i = 0; i < columns.size(); ++i) {
+            columnCoverage.addTo(columns.getLong(i), 1);
+        }
+    }
+
+    private void removeCoverage(LongList columns) {
+        for (int i = 0; i < columns.size(); ++i) {
+            long column = columns.getLong(i);
+            if (columnCoverage.addTo(column, -1) <= 1) {
+                columnCoverage.remove(column);
+            }
+        }
+    }
+
+    private void addPath(IndexedRainline entity, @Nullable LongBytePair pathId) {
+        if (pathId == null) {
+            return;
+        }
+        entityPaths.put(entity, pathId);
+        // Only the first rainline following a path is registered, matching the old behavior of
+        // ignoring duplicates
+        pathRainlines.putIfAbsent(pathId, entity);
+    }
+
+    private void removePath(IndexedRainline entity) {
+        LongBytePair pathId = entityPaths.remove(entity);
+        if (pathId != null && pathRainlines.remove(pathId, entity)) {
+            registerDuplicateForPath(pathId);
+        }
+    }
+
+    private void removeFromCell(IndexedRainline entity, long cellKey) {
+        List<IndexedRainline> entities = grid.get(cellKey);
+        if (entities == null) {
+            return;
+        }
+        entities.remove(entity);
+        if (entities.isEmpty()) {
+            grid.remove(cellKey);
+        }
+    }
+
+    // Rare case where a duplicate rainline outlives the original, so a linear scan is fine
+    private void registerDuplicateForPath(LongBytePair pathId) {
+        for (IndexedRainline entity : entityPaths.keySet()) {
+            if (entityPaths.get(entity).equals(pathId)) {
+                pathRainlines.put(pathId, entity);
+                return;
+            }
+        }
+    }
+}
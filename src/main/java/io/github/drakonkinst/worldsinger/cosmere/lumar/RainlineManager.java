@@ -26,13 +26,12 @@ package io.github.drakonkinst.worldsinger.cosmere.lumar;
 
 import io.github.drakonkinst.worldsinger.entity.rainline.RainlineEntity;
 import io.github.drakonkinst.worldsinger.item.map.CustomMapDecorationsComponent.Decoration;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import net.minecraft.item.map.MapState;
 import net.minecraft.predicate.entity.EntityPredicates;
 import net.minecraft.server.world.ServerWorld;
-import net.minecraft.util.TypeFilter;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
@@ -92,26 +91,12 @@ public interface RainlineManager {
         return world.getEntitiesByClass(RainlineEntity.class, box, EntityPredicates.VALID_ENTITY);
     }
 
-    static boolean shouldRainlineAffectBlocks(ServerWorld world, Vec3d pos) {
-        // final double x = pos.getX();
-        // final double z = pos.getZ();
-        // final Box box = new Box(x - RAINLINE_SEARCH_RADIUS, world.getBottomY(),
-        //         z - RAINLINE_SEARCH_RADIUS, x + RAINLINE_SEARCH_RADIUS, world.getTopY(),
-        //         z + RAINLINE_SEARCH_RADIUS);
-        // List<RainlineEntity> nearbyRainlines = world.getEntitiesByClass(RainlineEntity.class, box,
-        //         EntityPredicates.VALID_ENTITY);
-
-        // For some reason there is a bug where the rainline, even though nearby, doesn't get caught in the box after a few seconds. So doing it manually
-        List<RainlineEntity> nearbyRainlines = new ArrayList<>();
-        world.collectEntitiesByType(TypeFilter.instanceOf(RainlineEntity.class),
-                EntityPredicates.VALID_ENTITY, nearbyRainlines);
-        for (RainlineEntity entity : nearbyRainlines) {
-            double distSq = getHorizontalDistSq(entity.getPos(), pos);
-            if (distSq <= RAINLINE_EFFECT_RADIUS * RAINLINE_EFFECT_RADIUS) {
-                return true;
-            }
-        }
-        return false;
+    static boolean shouldRainlineAffectBlocks(ServerWorld world, BlockPos pos) {
+        // Entity queries are unreliable for rainlines and too slow for every hasRain() call,
+        // so use the coverage tracked by the rainline manager instead
+        return ((LumarManagerAccess) world).worldsinger$getLumarManager()
+                .getRainlineManager()
+                .isColumnCoveredByRainline(pos.getX(), pos.getZ());
     }
 
     void serverTick(ServerWorld world);
@@ -121,4 +106,12 @@ public interface RainlineManager {
 
     @Nullable
     RainlinePath getRainlinePathById(long id);
+
+    void onRainlineLoaded(RainlineEntity entity);
+
+    void onRainlineUnloaded(RainlineEntity entity);
+
+    void onRainlineMoved(RainlineEntity entity);
+
+    boolean isColumnCoveredByRainline(int blockX, int blockZ);
 }
@@ -28,6 +28,7 @@ import io.github.drakonkinst.worldsinger.item.map.CustomMapDecoration;
 import io.github.drakonkinst.worldsinger.item.map.CustomMapDecorationsComponent.Decoration;
 import io.github.drakonkinst.worldsinger.util.math.Int2;
 import io.github.drakonkinst.worldsinger.worldgen.lumar.LumarChunkGenerator;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import java.util.Map;
 import net.minecraft.item.map.MapState;
 import net.minecraft.server.world.ServerWorld;
@@ -54,8 +55,6 @@ public class RainlinePath {
     private static final int TICKS_PER_STEP = 20;
     private static final float STEPS_PER_TICK = 1.0f / TICKS_PER_STEP;
 
-    private static int nextIconId = 0;
-
     private record Spline(float ax, float ay, float bx, float by, float cx, float cy, float dx,
                           float dy, float length) {
 
@@ -66,19 +65,18 @@ public class RainlinePath {
 
         private static float calculateApproxLength(float ax, float ay, float bx, float by, float cx,
                 float cy, float dx, float dy) {
-            Vec2f[] splinePoints = new Vec2f[LENGTH_APPROX_STEPS];
-            for (int i = 0; i < LENGTH_APPROX_STEPS; ++i) {
+            float distance = 0.0f;
+            float prevX = Spline.apply(ax, bx, cx, dx, 0.0f);
+            float prevY = Spline.apply(ay, by, cy, dy, 0.0f);
+            for (int i = 1; i <= LENGTH_APPROX_STEPS; ++i) {
                 float t = (float) i / LENGTH_APPROX_STEPS;
                 float x = Spline.apply(ax, bx, cx, dx, t);
                 float y = Spline.apply(ay, by, cy, dy, t);
-                splinePoints[i] = new Vec2f(x, y);
-            }
-
-            float distance = 0.0f;
-            for (int i = 0; i < LENGTH_APPROX_STEPS; ++i) {
-                Vec2f p1 = splinePoints[i];
-                Vec2f p2 = splinePoints[(i + 1) % LENGTH_APPROX_STEPS];
-                distance += MathHelper.sqrt(p1.distanceSquared(p2));
+                float deltaX = x - prevX;
+                float deltaY = y - prevY;
+                distance += MathHelper.sqrt(deltaX * deltaX + deltaY * deltaY);
+                prevX = x;
+                prevY = y;
             }
             return distance;
         }
@@ -89,12 +87,6 @@ public class RainlinePath {
             return new Spline(ax, ay, bx, by, cx, cy, dx, dy, length);
         }
 
-        public Vec2f apply(float t) {
-            float x = applyX(t);
-            float y = applyY(t);
-            return new Vec2f(x, y);
-        }
-
         public float applyX(float t) {
             return Spline.apply(ax, bx, cx, dx, t);
         }
@@ -140,23 +132,28 @@ public class RainlinePath {
     }
 
     private final Spline[] splines;
+    // Distance along the cycle at evenly spaced values of t on each spline, used to look up the
+    // position at a given distance so that rainlines move at a constant speed
+    private final float[] arcLengths;
     private final float totalLength;
 
     public RainlinePath(Int2[] rainlineNodes) {
         this.splines = new Spline[RAINLINE_NODE_COUNT];
+        this.arcLengths = new float[RAINLINE_NODE_COUNT * LENGTH_APPROX_STEPS + 1];
         this.totalLength = this.generateAllSplines(rainlineNodes);
     }
 
-    public int applyMapDecorations(ServerWorld serverWorld, Map<String, Decoration> decorations,
+    // Icons only depend on the map area and the lunagree, so callers should cache the result
+    public Map<String, Decoration> createMapDecorations(NoiseConfig noiseConfig,
             MapState mapState, int cellNeighborIndex) {
-        nextIconId = 0;
+        Map<String, Decoration> decorations = new Object2ObjectOpenHashMap<>();
+        String idPrefix = "rainline-" + cellNeighborIndex + "-";
         int numAdded = 0;
-        NoiseConfig noiseConfig = serverWorld.getChunkManager().getNoiseConfig();
         for (int i = 0; i < RainlinePath.RAINLINE_NODE_COUNT; ++i) {
-            numAdded += applyMapDecorationsForSpline(noiseConfig, decorations, mapState, splines[i],
-                    cellNeighborIndex);
+            numAdded = addMapDecorationsForSpline(noiseConfig, decorations, mapState, splines[i],
+                    idPrefix, numAdded);
         }
-        return numAdded;
+        return decorations;
     }
 
     // Gets the stepProgress offset for the rainline at provided index, or -1 if bad index
@@ -169,16 +166,17 @@ public class RainlinePath {
     }
 
     public Vec2f getRainlinePosition(ServerWorld world, int stepOffset) {
-        long gameTime = world.getTime();
-        // Given game time and initial offset, where should we be?
-        float stepProgress = (gameTime * STEPS_PER_TICK + stepOffset) % getMaxSteps();
-        return getPositionForStepProgress(stepProgress);
+        float distanceAlongCycle = getDistanceAlongCycle(world.getTime(), stepOffset);
+        int segment = findArcLengthSegment(distanceAlongCycle);
+        Spline spline = splines[segment / LENGTH_APPROX_STEPS];
+        float t = getSplineT(segment, distanceAlongCycle);
+        return new Vec2f(spline.applyX(t), spline.applyY(t));
     }
 
-    private int applyMapDecorationsForSpline(NoiseConfig noiseConfig,
+    // Returns the total number of icons added so far, which is used to keep icon IDs unique
+    private int addMapDecorationsForSpline(NoiseConfig noiseConfig,
             Map<String, Decoration> decorations, MapState mapState, Spline spline,
-            int cellNeighborIndex) {
-        int numAdded = 0;
+            String idPrefix, int numAdded) {
         float prevX = spline.applyX(0.0f);
         float prevZ = spline.applyY(0.0f);
         int splineSteps = MathHelper.floor(spline.length() / MAP_ICON_DISTANCE);
@@ -192,8 +190,7 @@ public class RainlinePath {
                             .id())) {
                 float rotation = (float) MathHelper.atan2(z - prevZ, x - prevX)
                         * MathHelper.DEGREES_PER_RADIAN;
-                ++numAdded;
-                decorations.put("rainline-" + cellNeighborIndex + "-" + (++nextIconId),
+                decorations.put(idPrefix + (++numAdded),
                         new Decoration(CustomMapDecoration.Type.RAINLINE, x, z, rotation));
             }
             prevX = x;
@@ -226,40 +223,54 @@ public class RainlinePath {
         float totalLength = 0.0f;
         for (int i = 0; i < RAINLINE_NODE_COUNT; ++i) {
             Spline spline = calculateSpline(i, rainlineNodes);
-            totalLength += spline.length();
             splines[i] = spline;
+
+            float prevX = spline.applyX(0.0f);
+            float prevY = spline.applyY(0.0f);
+            for (int j = 1; j <= LENGTH_APPROX_STEPS; ++j) {
+                float t = (float) j / LENGTH_APPROX_STEPS;
+                float x = spline.applyX(t);
+                float y = spline.applyY(t);
+                float deltaX = x - prevX;
+                float deltaY = y - prevY;
+                totalLength += MathHelper.sqrt(deltaX * deltaX + deltaY * deltaY);
+                arcLengths[i * LENGTH_APPROX_STEPS + j] = totalLength;
+                prevX = x;
+                prevY = y;
+            }
         }
         return totalLength;
     }
 
-    private Vec2f getPositionForStepProgress(float stepProgress) {
-        float distanceAlongCycle = stepProgress * STEP_BLOCK_LENGTH;
-        return getPositionForDistanceAlongCycle(distanceAlongCycle);
+    // Given game time and initial offset, how far along the cycle should we be?
+    private float getDistanceAlongCycle(long gameTime, int stepOffset) {
+        // Use double precision, since game time gets too large for floats
+        double stepProgress = (gameTime * (double) STEPS_PER_TICK + stepOffset) % getMaxSteps();
+        return (float) (stepProgress * STEP_BLOCK_LENGTH);
     }
 
-    // Get position for distance in blocks, assuming distance is in [0, totalLength)
-    private Vec2f getPositionForDistanceAlongCycle(float distanceAlongCycle) {
-        if (distanceAlongCycle <= 0) {
-            return getStartingPoint();
-        }
-
-        float current = 0.0f;
-        float next;
-        for (int i = 0; i < RAINLINE_NODE_COUNT; ++i) {
-            Spline spline = splines[i];
-            next = current + spline.length();
-            if (next >= distanceAlongCycle) {
-                float distanceAlongSpline = distanceAlongCycle - current;
-                float t = MathHelper.clamp(distanceAlongSpline / spline.length(), 0.0f, 1.0f);
-                return spline.apply(t);
+    // Binary search for the last arc length sample at or before the distance
+    private int findArcLengthSegment(float distanceAlongCycle) {
+        int low = 0;
+        int high = arcLengths.length - 1;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (arcLengths[mid] <= distanceAlongCycle) {
+                low = mid;
+            } else {
+                high = mid;
             }
-            current = next;
         }
-        return getStartingPoint();
+        return low;
     }
 
-    private Vec2f getStartingPoint() {
-        return splines[0].apply(0.0f);
+    // Interpolate between the t values at either end of the segment
+    private float getSplineT(int segment, float distanceAlongCycle) {
+        float segmentStart = arcLengths[segment];
+        float segmentLength = arcLengths[segment + 1] - segmentStart;
+        float progress = segmentLength > 0.0f ? MathHelper.clamp(
+                (distanceAlongCycle - segmentStart) / segmentLength, 0.0f, 1.0f) : 0.0f;
+        return ((segment % LENGTH_APPROX_STEPS) + progress) / LENGTH_APPROX_STEPS;
     }
 
     public int getMaxSteps() {
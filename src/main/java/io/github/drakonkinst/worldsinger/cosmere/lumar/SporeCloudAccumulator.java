@@ -0,0 +1,304 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023-2024 Drakonkinst
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.drakonkinst.worldsinger.cosmere.lumar;
+
+import io.github.drakonkinst.worldsinger.Worldsinger;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import java.util.ArrayList;
+import java.util.List;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.effect.StatusEffect;
+import net.minecraft.entity.vehicle.BoatEntity;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+
+// Collects the spore clouds created during a tick and merges overlapping clouds of the same spore
+// type into regions. Each region is checked for spore-killing blocks and entities once, and its
+// entities are affected in a single pass, which matters when many small clouds are created in the
+// same place (e.g. boats rowing through a spore sea).
+public class SporeCloudAccumulator {
+
+    // Keeps merged regions small enough that a single query stays cheap
+    private static final double MAX_REGION_SIZE = 16.0;
+    // Regions are bucketed by the column of the first cloud's center, which is always inside the
+    // region. Cells are no smaller than a region, so only a few cells need to be checked.
+    private static final int CELL_SHIFT = 4;
+
+    private Reference2ObjectMap<AetherSpores, RegionGrid> regionsByType =
+            new Reference2ObjectLinkedOpenHashMap<>();
+    private int numClouds = 0;
+
+    public void add(AetherSpores sporeType, double x, double minY, double z, double radius,
+            double height, float particleSize, int particleCount, boolean useDistance) {
+        Cloud cloud = new Cloud(x, minY, z, radius, height, particleSize, particleCount,
+                useDistance);
+        RegionGrid grid = regionsByType.computeIfAbsent(sporeType, k -> new RegionGrid());
+        ++numClouds;
+        // Any region that overlaps the cloud has its first center within a region's size of it
+        int minCellX = MathHelper.floor(cloud.box.minX - MAX_REGION_SIZE) >> CELL_SHIFT;
+        int minCellZ = MathHelper.floor(cloud.box.minZ - MAX_REGION_SIZE) >> CELL_SHIFT;
+        int maxCellX = MathHelper.floor(cloud.box.maxX + MAX_REGION_SIZE) >> CELL_SHIFT;
+        int maxCellZ = MathHelper.floor(cloud.box.maxZ + MAX_REGION_SIZE) >> CELL_SHIFT;
+        for (int cellX = minCellX; cellX <= maxCellX; ++cellX) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; ++cellZ) {
+                List<Region> cellRegions = grid.regionsByCell.get(ChunkPos.toLong(cellX, cellZ));
+                if (cellRegions == null) {
+                    continue;
+                }
+                for (Region region : cellRegions) {
+                    if (region.tryMerge(cloud)) {
+                        return;
+                    }
+                }
+            }
+        }
+        Region region = new Region(cloud);
+        grid.regions.add(region);
+        long cellKey = ChunkPos.toLong(MathHelper.floor(x) >> CELL_SHIFT,
+                MathHelper.floor(z) >> CELL_SHIFT);
+        grid.regionsByCell.computeIfAbsent(cellKey, k -> new ArrayList<>()).add(region);
+    }
+
+    public void flush(ServerWorld world) {
+        if (numClouds == 0) {
+            return;
+        }
+        // Swap out the regions first in case resolving them creates more clouds
+        Reference2ObjectMap<AetherSpores, RegionGrid> regionsToResolve = regionsByType;
+        regionsByType = new Reference2ObjectLinkedOpenHashMap<>();
+        numClouds = 0;
+
+        for (Reference2ObjectMap.Entry<AetherSpores, RegionGrid> entry :
+                regionsToResolve.reference2ObjectEntrySet()) {
+            AetherSpores sporeType = entry.getKey();
+            for (Region region : entry.getValue().regions) {
+                SporeCloudAccumulator.resolveRegion(world, sporeType, region);
+            }
+        }
+    }
+
+    private static void resolveRegion(ServerWorld world, AetherSpores sporeType, Region region) {
+        if (!sporeType.isDead()) {
+            SporeCloudAccumulator.markDeadClouds(world, region);
+        }
+
+        AetherSpores deadSpores = DeadSpores.getInstance();
+        boolean anyLiving = false;
+        for (Cloud cloud : region.clouds) {
+            AetherSpores cloudType = cloud.isDead ? deadSpores : sporeType;
+            SporeParticleManager.spawnVisualSporeParticles(world, cloudType, cloud.x, cloud.minY,
+                    cloud.z, cloud.radius, cloud.height, cloud.particleSize, cloud.particleCount);
+            anyLiving |= !cloud.isDead;
+        }
+
+        if (anyLiving && !sporeType.isDead()) {
+            SporeCloudAccumulator.damageEntities(world, sporeType, region);
+        }
+    }
+
+    // A cloud is dead under the same conditions as SporeParticleManager.shouldConvertToDead().
+    // The region is checked first, and only if it finds something are its clouds checked
+    // individually.
+    private static void markDeadClouds(ServerWorld world, Region region) {
+        boolean isSingleCloud = region.clouds.size() == 1;
+
+        if (SporeKillingUtil.isSporeKillingBlockNearbyForRange(world, region.minX, region.minY,
+                region.minZ, region.maxX, region.maxY, region.maxZ)) {
+            for (Cloud cloud : region.clouds) {
+                cloud.isDead = isSingleCloud || SporeKillingUtil.isSporeKillingBlockNearbyForRange(
+                        world, cloud.box.minX, cloud.box.minY, cloud.box.minZ, cloud.box.maxX,
+                        cloud.box.maxY, cloud.box.maxZ);
+            }
+        }
+
+        boolean allDead = true;
+        for (Cloud cloud : region.clouds) {
+            allDead &= cloud.isDead;
+        }
+        if (allDead) {
+            return;
+        }
+
+        // Silver durability is only used up once per region, and only by boats that reach a living
+        // cloud
+        double boatRadius = SporeKillingUtil.BOAT_RADIUS;
+        List<Box> killingBoxes = new ArrayList<>(region.clouds.size());
+        for (Cloud cloud : region.clouds) {
+            if (!cloud.isDead) {
+                killingBoxes.add(cloud.box.expand(boatRadius));
+            }
+        }
+        List<BoatEntity> sporeKillingBoats = SporeKillingUtil.collectSporeKillingEntitiesInBox(
+                world, region.getBox().expand(boatRadius),
+                boat -> SporeCloudAccumulator.intersectsAny(boat.getBoundingBox(), killingBoxes));
+        if (sporeKillingBoats.isEmpty()) {
+            return;
+        }
+        for (Cloud cloud : region.clouds) {
+            if (cloud.isDead) {
+                continue;
+            }
+            Box killingBox = cloud.box.expand(boatRadius);
+            for (BoatEntity boat : sporeKillingBoats) {
+                if (boat.getBoundingBox().intersects(killingBox)) {
+                    cloud.isDead = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    private static boolean intersectsAny(Box box, List<Box> boxes) {
+        for (Box other : boxes) {
+            if (box.intersects(other)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Each entity receives the longest effect of any cloud that reaches it, which is what applying
+    // each cloud separately would end up with
+    private static void damageEntities(ServerWorld world, AetherSpores sporeType, Region region) {
+        RegistryEntry<StatusEffect> statusEffect = sporeType.getStatusEffect();
+        if (statusEffect == null) {
+            Worldsinger.LOGGER.error(
+                    "SporeType does not have associated status effect: " + sporeType.getId());
+            return;
+        }
+
+        List<LivingEntity> entitiesInRange = world.getEntitiesByClass(LivingEntity.class,
+                region.getBox(), AetherSpores::sporesCanAffect);
+        for (LivingEntity entity : entitiesInRange) {
+            Box entityBox = entity.getBoundingBox();
+            int duration = 0;
+            for (Cloud cloud : region.clouds) {
+                if (cloud.isDead || !entityBox.intersects(cloud.box)
+                        || !SporeParticleManager.canSporesReach(entity, cloud.box)) {
+                    continue;
+                }
+                duration = Math.max(duration,
+                        SporeParticleManager.getSporeEffectDuration(entity, cloud.box.getCenter(),
+                                cloud.useDistance));
+            }
+            if (duration > 0) {
+                SporeParticleManager.applySporeEffect(entity, statusEffect, duration);
+            }
+        }
+    }
+
+    private static class Cloud {
+
+        private final double x;
+        private final double minY;
+        private final double z;
+        private final double radius;
+        private final double height;
+        private final float particleSize;
+        private final int particleCount;
+        private final boolean useDistance;
+        private final Box box;
+        private boolean isDead = false;
+
+        private Cloud(double x, double minY, double z, double radius, double height,
+                float particleSize, int particleCount, boolean useDistance) {
+            this.x = x;
+            this.minY = minY;
+            this.z = z;
+            this.radius = radius;
+            this.height = height;
+            this.particleSize = particleSize;
+            this.particleCount = particleCount;
+            this.useDistance = useDistance;
+            this.box = new Box(x - radius, minY, z - radius, x + radius, minY + height,
+                    z + radius);
+        }
+    }
+
+    private static class RegionGrid {
+
+        // In the order they were created
+        private final List<Region> regions = new ArrayList<>();
+        private final Long2ObjectMap<List<Region>> regionsByCell = new Long2ObjectOpenHashMap<>();
+    }
+
+    private static class Region {
+
+        private final List<Cloud> clouds = new ArrayList<>();
+        private double minX;
+        private double minY;
+        private double minZ;
+        private double maxX;
+        private double maxY;
+        private double maxZ;
+
+        private Region(Cloud cloud) {
+            clouds.add(cloud);
+            minX = cloud.box.minX;
+            minY = cloud.box.minY;
+            minZ = cloud.box.minZ;
+            maxX = cloud.box.maxX;
+            maxY = cloud.box.maxY;
+            maxZ = cloud.box.maxZ;
+        }
+
+        // Merges the cloud into this region if they overlap and the result is not too large
+        private boolean tryMerge(Cloud cloud) {
+            Box box = cloud.box;
+            if (box.maxX < minX || box.minX > maxX || box.maxY < minY || box.minY > maxY
+                    || box.maxZ < minZ || box.minZ > maxZ) {
+                return false;
+            }
+            double newMinX = Math.min(minX, box.minX);
+            double newMinY = Math.min(minY, box.minY);
+            double newMinZ = Math.min(minZ, box.minZ);
+            double newMaxX = Math.max(maxX, box.maxX);
+            double newMaxY = Math.max(maxY, box.maxY);
+            double newMaxZ = Math.max(maxZ, box.maxZ);
+            if (newMaxX - newMinX > MAX_REGION_SIZE || newMaxY - newMinY > MAX_REGION_SIZE
+                    || newMaxZ - newMinZ > MAX_REGION_SIZE) {
+                return false;
+            }
+            minX = newMinX;
+            minY = newMinY;
+            minZ = newMinZ;
+            maxX = newMaxX;
+            maxY = newMaxY;
+            maxZ = newMaxZ;
+            clouds.add(cloud);
+            return true;
+        }
+
+        private Box getBox() {
+            return new Box(minX, minY, minZ, maxX, maxY, maxZ);
+        }
+    }
+}
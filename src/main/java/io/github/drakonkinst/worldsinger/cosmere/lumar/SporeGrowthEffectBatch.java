@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023-2024 Drakonkinst
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.drakonkinst.worldsinger.cosmere.lumar;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import java.util.ArrayList;
+import java.util.List;
+import net.minecraft.block.BlockState;
+import net.minecraft.particle.BlockStateParticleEffect;
+import net.minecraft.particle.ParticleTypes;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.sound.SoundCategory;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.random.Random;
+
+// Collects spore growth particles and sounds over a tick, then emits one particle burst and one
+// sound per block state per chunk section instead of one per placed block.
+public class SporeGrowthEffectBatch {
+
+    private static final int PARTICLES_PER_BLOCK = 100;
+    private static final int MAX_PARTICLES_PER_BURST = 400;
+    private static final float PARTICLE_SPEED = 0.15f;
+
+    private final Long2ObjectMap<List<Entry>> entriesBySection =
+            new Long2ObjectLinkedOpenHashMap<>();
+
+    public void addEffects(BlockPos pos, BlockState state, boolean showParticles,
+            boolean playSound) {
+        if (!showParticles && !playSound) {
+            return;
+        }
+        long sectionKey = ChunkSectionPos.toLong(pos);
+        List<Entry> entries = entriesBySection.get(sectionKey);
+        if (entries == null) {
+            entries = new ArrayList<>(2);
+            entriesBySection.put(sectionKey, entries);
+        }
+
+        Entry entry = null;
+        for (Entry existing : entries) {
+            if (existing.state == state) {
+                entry = existing;
+                break;
+            }
+        }
+        if (entry == null) {
+            entry = new Entry(state, pos);
+            entries.add(entry);
+        }
+        entry.add(pos, showParticles, playSound);
+    }
+
+    public void flush(ServerWorld world) {
+        if (entriesBySection.isEmpty()) {
+            return;
+        }
+        Random random = world.getRandom();
+        for (List<Entry> entries : entriesBySection.values()) {
+            for (Entry entry : entries) {
+                entry.emit(world, random);
+            }
+        }
+        entriesBySection.clear();
+    }
+
+    private static class Entry {
+
+        private final BlockState state;
+        private int minX;
+        private int minY;
+        private int minZ;
+        private int maxX;
+        private int maxY;
+        private int maxZ;
+        private int numParticleBlocks = 0;
+        private boolean playSound = false;
+
+        private Entry(BlockState state, BlockPos pos) {
+            this.state = state;
+            this.minX = this.maxX = pos.getX();
+            this.minY = this.maxY = pos.getY();
+            this.minZ = this.maxZ = pos.getZ();
+        }
+
+        private void add(BlockPos pos, boolean showParticles, boolean playSound) {
+            minX = Math.min(minX, pos.getX());
+            minY = Math.min(minY, pos.getY());
+            minZ = Math.min(minZ, pos.getZ());
+            maxX = Math.max(maxX, pos.getX());
+            maxY = Math.max(maxY, pos.getY());
+            maxZ = Math.max(maxZ, pos.getZ());
+            if (showParticles) {
+                ++numParticleBlocks;
+            }
+            this.playSound |= playSound;
+        }
+
+        private void emit(ServerWorld world, Random random) {
+            double centerX = (minX + maxX) * 0.5 + 0.5;
+            double centerY = (minY + maxY) * 0.5 + 0.5;
+            double centerZ = (minZ + maxZ) * 0.5 + 0.5;
+
+            if (numParticleBlocks > 0) {
+                // Spread the burst over the affected area; a single block matches the old effect
+                int count = Math.min(numParticleBlocks * PARTICLES_PER_BLOCK,
+                        MAX_PARTICLES_PER_BURST);
+                world.spawnParticles(new BlockStateParticleEffect(ParticleTypes.BLOCK, state),
+                        centerX, centerY, centerZ, count, (maxX - minX) * 0.5,
+                        (maxY - minY) * 0.5, (maxZ - minZ) * 0.5, PARTICLE_SPEED);
+            }
+
+            if (playSound) {
+                world.playSound(null, centerX, centerY, centerZ,
+                        state.getSoundGroup().getPlaceSound(), SoundCategory.BLOCKS, 1.0f,
+                        0.8f + 0.4f * random.nextFloat(), random.nextLong());
+            }
+        }
+    }
+}
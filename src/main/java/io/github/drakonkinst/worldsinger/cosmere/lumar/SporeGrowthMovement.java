@@ -26,6 +26,8 @@ package io.github.drakonkinst.worldsinger.cosmere.lumar;
 import io.github.drakonkinst.datatables.DataTable;
 import io.github.drakonkinst.datatables.DataTableRegistry;
 import io.github.drakonkinst.worldsinger.Worldsinger;
+import io.github.drakonkinst.worldsinger.cosmere.MetalBlockIndex;
+import io.github.drakonkinst.worldsinger.cosmere.MetalBlockIndexAccess;
 import io.github.drakonkinst.worldsinger.cosmere.MetalQueryManager;
 import io.github.drakonkinst.worldsinger.registry.ModDataTables;
 import io.github.drakonkinst.worldsinger.registry.tag.ModBlockTags;
@@ -39,6 +41,7 @@ import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.vehicle.AbstractMinecartEntity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 import org.joml.Vector3d;
@@ -65,47 +68,78 @@ public final class SporeGrowthMovement {
         int maxY = pos.getY() + MAX_SEARCH_RADIUS;
         int maxZ = pos.getZ() + MAX_SEARCH_RADIUS;
 
-        double forceX = 0;
-        double forceY = 0;
-        double forceZ = 0;
-
-        for (BlockPos currentPos : BlockPos.iterate(minX, minY, minZ, maxX, maxY, maxZ)) {
-            if (currentPos.equals(pos)) {
-                continue;
+        // Block changes are only tracked on the server
+        if (!(world instanceof MetalBlockIndexAccess access)) {
+            for (BlockPos currentPos : BlockPos.iterate(minX, minY, minZ, maxX, maxY, maxZ)) {
+                SporeGrowthMovement.addBlockForce(world, metalContentTable, pos, currentPos,
+                        force);
             }
+            return;
+        }
 
-            BlockState blockState = world.getBlockState(currentPos);
-            boolean hasIron = blockState.isIn(ModBlockTags.HAS_IRON);
-            boolean hasSteel = blockState.isIn(ModBlockTags.HAS_STEEL);
-
-            if (!hasIron && !hasSteel) {
-                continue;
+        MetalBlockIndex index = access.worldsinger$getMetalBlockIndex();
+        BlockPos.Mutable currentPos = new BlockPos.Mutable();
+        for (int sectionX = ChunkSectionPos.getSectionCoord(minX);
+                sectionX <= ChunkSectionPos.getSectionCoord(maxX); ++sectionX) {
+            for (int sectionZ = ChunkSectionPos.getSectionCoord(minZ);
+                    sectionZ <= ChunkSectionPos.getSectionCoord(maxZ); ++sectionZ) {
+                for (int sectionY = ChunkSectionPos.getSectionCoord(minY);
+                        sectionY <= ChunkSectionPos.getSectionCoord(maxY); ++sectionY) {
+                    for (short packedPos : index.getEmitters(sectionX, sectionY, sectionZ)) {
+                        int x = ChunkSectionPos.getBlockCoord(sectionX)
+                                + ChunkSectionPos.unpackLocalX(packedPos);
+                        int y = ChunkSectionPos.getBlockCoord(sectionY)
+                                + ChunkSectionPos.unpackLocalY(packedPos);
+                        int z = ChunkSectionPos.getBlockCoord(sectionZ)
+                                + ChunkSectionPos.unpackLocalZ(packedPos);
+                        if (x < minX || x > maxX || y < minY || y > maxY || z < minZ
+                                || z > maxZ) {
+                            continue;
+                        }
+                        currentPos.set(x, y, z);
+                        SporeGrowthMovement.addBlockForce(world, metalContentTable, pos,
+                                currentPos, force);
+                    }
+                }
             }
+        }
+    }
 
-            int range = metalContentTable.getIntForBlock(blockState);
-            if (range <= 0) {
-                Worldsinger.LOGGER.warn("Block " + blockState.getBlock().getName()
-                        + " is defined as having iron or steel, but no metal content value is given");
-                continue;
-            }
+    private static void addBlockForce(World world, DataTable metalContentTable, BlockPos pos,
+            BlockPos currentPos, Vector3d force) {
+        if (currentPos.equals(pos)) {
+            return;
+        }
 
-            if (BlockPosUtil.isInvestitureBlocked(world, currentPos, pos)) {
-                continue;
-            }
+        BlockState blockState = world.getBlockState(currentPos);
+        boolean hasIron = blockState.isIn(ModBlockTags.HAS_IRON);
+        boolean hasSteel = blockState.isIn(ModBlockTags.HAS_STEEL);
 
-            Vec3d dir = BlockPosUtil.getNormalizedVectorBetween(currentPos, pos, hasSteel);
-            int distance = BlockPosUtil.getDistance(pos, currentPos);
+        if (!hasIron && !hasSteel) {
+            return;
+        }
 
-            if (range < distance) {
-                continue;
-            }
+        int range = metalContentTable.getIntForBlock(blockState);
+        if (range <= 0) {
+            Worldsinger.LOGGER.warn("Block " + blockState.getBlock().getName()
+                    + " is defined as having iron or steel, but no metal content value is given");
+            return;
+        }
 
-            int power = (range - distance + 1) * BLOCK_FORCE_MULTIPLIER;
-            forceX += dir.getX() * power;
-            forceY += dir.getY() * power;
-            forceZ += dir.getZ() * power;
+        // Check range before occlusion, since it is much cheaper
+        int distance = BlockPosUtil.getDistance(pos, currentPos);
+        if (range < distance) {
+            return;
         }
-        force.add(forceX, forceY, forceZ);
+
+        if (BlockPosUtil.isInvestitureBlocked(world, currentPos, pos)) {
+            return;
+        }
+
+        Vec3d dir = BlockPosUtil.getNormalizedVectorBetween(currentPos, pos, hasSteel);
+
+        int power = (range - distance + 1) * BLOCK_FORCE_MULTIPLIER;
+        force.add(dir.getX() * power, dir.getY() * power, dir.getZ() * power);
     }
 
     private static void calcEntityExternalForce(World world, BlockPos pos, Vector3d force) {
@@ -42,6 +42,7 @@ import io.github.drakonkinst.worldsinger.registry.tag.ModItemTags;
 import io.github.drakonkinst.worldsinger.util.BlockPosUtil;
 import io.github.drakonkinst.worldsinger.util.ModProperties;
 import java.util.List;
+import java.util.function.Predicate;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Waterloggable;
@@ -54,6 +55,7 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.util.Hand;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
@@ -163,25 +165,8 @@ public final class SporeKillingUtil {
     }
 
     public static boolean isSporeKillingBlockNearby(World world, BlockPos pos) {
-        DataTable dataTable = DataTableRegistry.INSTANCE.get(ModDataTables.SPORE_KILLING_RADIUS);
-        for (BlockPos currentPos : BlockPos.iterateOutwards(pos, MAX_BLOCK_RADIUS, MAX_BLOCK_RADIUS,
-                MAX_BLOCK_RADIUS)) {
-            BlockState blockState = world.getBlockState(currentPos);
-            if (!blockState.isIn(ModBlockTags.KILLS_SPORES)) {
-                continue;
-            }
-
-            int distance = BlockPosUtil.getDistance(pos, currentPos);
-            if (dataTable.getIntForBlock(blockState) < distance) {
-                continue;
-            }
-
-            if (BlockPosUtil.isInvestitureBlocked(world, currentPos, pos)) {
-                continue;
-            }
-            return true;
-        }
-        return false;
+        return SporeKillingUtil.isSporeKillingBlockNearbyForRange(world, pos.getX(), pos.getY(),
+                pos.getZ(), pos.getX(), pos.getY(), pos.getZ());
     }
 
     public static boolean checkNearbyEntities(World world, Vec3d pos) {
@@ -190,8 +175,22 @@ public final class SporeKillingUtil {
     }
 
     private static boolean checkNearbyEntitiesInBox(World world, Box box) {
-        List<BoatEntity> entitiesInRange = world.getEntitiesByClass(BoatEntity.class, box,
+        return !SporeKillingUtil.collectSporeKillingEntitiesInBox(world, box).isEmpty();
+    }
+
+    // Returns the spore-killing boats in the box, using up some of their silver durability
+    public static List<BoatEntity> collectSporeKillingEntitiesInBox(World world, Box box) {
+        return SporeKillingUtil.collectSporeKillingEntitiesInBox(world, box, boatEntity -> true);
+    }
+
+    // Same as above, but only boats accepted by the filter have their silver durability used up
+    public static List<BoatEntity> collectSporeKillingEntitiesInBox(World world, Box box,
+            Predicate<BoatEntity> filter) {
+        return world.getEntitiesByClass(BoatEntity.class, box,
                 boatEntity -> {
+                    if (!filter.test(boatEntity)) {
+                        return false;
+                    }
                     SilverLinedEntityData silverData = boatEntity.getAttached(
                             ModAttachmentTypes.SILVER_LINED_BOAT);
                     boolean hasSilver = silverData != null && silverData.getSilverDurability() > 0;
@@ -204,7 +203,6 @@ public final class SporeKillingUtil {
                     }
                     return hasSilver;
                 });
-        return !entitiesInRange.isEmpty();
     }
 
     public static boolean checkNearbyEntitiesForRange(World world, double minX, double minY,
@@ -223,6 +221,17 @@ public final class SporeKillingUtil {
 
     public static boolean isSporeKillingBlockNearbyForRange(World world, int minX, int minY,
             int minZ, int maxX, int maxY, int maxZ) {
+        // Block changes are only tracked on the server
+        if (world instanceof SporeKillingIndexAccess access) {
+            return SporeKillingUtil.isIndexedSporeKillingBlockNearby(world,
+                    access.worldsinger$getSporeKillingIndex(), minX, minY, minZ, maxX, maxY, maxZ);
+        }
+        return SporeKillingUtil.scanForSporeKillingBlockNearby(world, minX, minY, minZ, maxX, maxY,
+                maxZ);
+    }
+
+    private static boolean isIndexedSporeKillingBlockNearby(World world, SporeKillingIndex index,
+            int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
         DataTable dataTable = DataTableRegistry.INSTANCE.get(ModDataTables.SPORE_KILLING_RADIUS);
 
         int searchMinX = minX - MAX_BLOCK_RADIUS;
@@ -232,29 +241,82 @@ public final class SporeKillingUtil {
         int searchMaxY = maxY + MAX_BLOCK_RADIUS;
         int searchMaxZ = maxZ + MAX_BLOCK_RADIUS;
 
+        int minSectionX = ChunkSectionPos.getSectionCoord(searchMinX);
+        int minSectionY = ChunkSectionPos.getSectionCoord(searchMinY);
+        int minSectionZ = ChunkSectionPos.getSectionCoord(searchMinZ);
+        int maxSectionX = ChunkSectionPos.getSectionCoord(searchMaxX);
+        int maxSectionY = ChunkSectionPos.getSectionCoord(searchMaxY);
+        int maxSectionZ = ChunkSectionPos.getSectionCoord(searchMaxZ);
+
+        BlockPos.Mutable emitterPos = new BlockPos.Mutable();
         BlockPos.Mutable closestPos = new BlockPos.Mutable();
-        for (BlockPos searchPos : BlockPos.iterate(searchMinX, searchMinY, searchMinZ, searchMaxX,
-                searchMaxY, searchMaxZ)) {
-            BlockState blockState = world.getBlockState(searchPos);
-            if (!blockState.isIn(ModBlockTags.KILLS_SPORES)) {
-                continue;
+        for (int sectionX = minSectionX; sectionX <= maxSectionX; ++sectionX) {
+            for (int sectionZ = minSectionZ; sectionZ <= maxSectionZ; ++sectionZ) {
+                for (int sectionY = minSectionY; sectionY <= maxSectionY; ++sectionY) {
+                    short[] emitters = index.getEmitters(sectionX, sectionY, sectionZ);
+                    for (short packedPos : emitters) {
+                        int x = ChunkSectionPos.getBlockCoord(sectionX)
+                                + ChunkSectionPos.unpackLocalX(packedPos);
+                        int y = ChunkSectionPos.getBlockCoord(sectionY)
+                                + ChunkSectionPos.unpackLocalY(packedPos);
+                        int z = ChunkSectionPos.getBlockCoord(sectionZ)
+                                + ChunkSectionPos.unpackLocalZ(packedPos);
+                        if (x < searchMinX || x > searchMaxX || y < searchMinY || y > searchMaxY
+                                || z < searchMinZ || z > searchMaxZ) {
+                            continue;
+                        }
+                        emitterPos.set(x, y, z);
+                        if (SporeKillingUtil.canEmitterReach(world, dataTable, emitterPos, minX,
+                                minY, minZ, maxX, maxY, maxZ, closestPos)) {
+                            return true;
+                        }
+                    }
+                }
             }
+        }
+        return false;
+    }
 
-            SporeKillingUtil.calcClosestPointOnCuboid(searchPos.getX(), searchPos.getY(),
-                    searchPos.getZ(), minX, minY, minZ, maxX, maxY, maxZ, closestPos);
-            int distance = BlockPosUtil.getDistance(searchPos, closestPos);
-            if (dataTable.getIntForBlock(blockState) < distance) {
-                continue;
-            }
+    private static boolean scanForSporeKillingBlockNearby(World world, int minX, int minY,
+            int minZ, int maxX, int maxY, int maxZ) {
+        DataTable dataTable = DataTableRegistry.INSTANCE.get(ModDataTables.SPORE_KILLING_RADIUS);
 
-            if (BlockPosUtil.isInvestitureBlocked(world, searchPos, closestPos)) {
-                continue;
+        int searchMinX = minX - MAX_BLOCK_RADIUS;
+        int searchMinY = minY - MAX_BLOCK_RADIUS;
+        int searchMinZ = minZ - MAX_BLOCK_RADIUS;
+        int searchMaxX = maxX + MAX_BLOCK_RADIUS;
+        int searchMaxY = maxY + MAX_BLOCK_RADIUS;
+        int searchMaxZ = maxZ + MAX_BLOCK_RADIUS;
+
+        BlockPos.Mutable closestPos = new BlockPos.Mutable();
+        for (BlockPos searchPos : BlockPos.iterate(searchMinX, searchMinY, searchMinZ, searchMaxX,
+                searchMaxY, searchMaxZ)) {
+            if (SporeKillingUtil.canEmitterReach(world, dataTable, searchPos, minX, minY, minZ,
+                    maxX, maxY, maxZ, closestPos)) {
+                return true;
             }
-            return true;
         }
         return false;
     }
 
+    private static boolean canEmitterReach(World world, DataTable dataTable, BlockPos emitterPos,
+            int minX, int minY, int minZ, int maxX, int maxY, int maxZ,
+            BlockPos.Mutable closestPos) {
+        BlockState blockState = world.getBlockState(emitterPos);
+        if (!blockState.isIn(ModBlockTags.KILLS_SPORES)) {
+            return false;
+        }
+
+        SporeKillingUtil.calcClosestPointOnCuboid(emitterPos.getX(), emitterPos.getY(),
+                emitterPos.getZ(), minX, minY, minZ, maxX, maxY, maxZ, closestPos);
+        int distance = BlockPosUtil.getDistance(emitterPos, closestPos);
+        if (dataTable.getIntForBlock(blockState) < distance) {
+            return false;
+        }
+
+        return !BlockPosUtil.isInvestitureBlocked(world, emitterPos, closestPos);
+    }
+
     private static void calcClosestPointOnCuboid(int x, int y, int z, int minX, int minY, int minZ,
             int maxX, int maxY, int maxZ, BlockPos.Mutable mutable) {
         int closestX = SporeKillingUtil.clamp(x, minX, maxX);
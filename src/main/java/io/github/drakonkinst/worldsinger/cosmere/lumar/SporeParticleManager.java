@@ -28,8 +28,6 @@ import io.github.drakonkinst.worldsinger.entity.ModEntityTypeTags;
 import io.github.drakonkinst.worldsinger.particle.AbstractSporeDustParticleEffect;
 import io.github.drakonkinst.worldsinger.particle.FallingSporeDustParticleEffect;
 import io.github.drakonkinst.worldsinger.particle.SporeDustParticleEffect;
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import java.util.List;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
@@ -50,9 +48,7 @@ public final class SporeParticleManager {
 
     public static final int SPORE_EFFECT_DURATION_TICKS_DEFAULT = 40;
 
-    private static final int FLOATING_ID_OFFSET = 100;
     private static final float CACHED_SIZE_PRECISION = 20.0f;
-    private static final Int2ObjectMap<AbstractSporeDustParticleEffect> cachedDustParticleEffects = new Int2ObjectOpenHashMap<>();
     private static final int SPORE_EFFECT_DURATION_TICKS_MIN = 20;
     private static final float MIN_PARTICLE_SIZE = 0.3f;
     private static final float MAX_PARTICLE_SIZE = 10.0f;
@@ -118,6 +114,14 @@ public final class SporeParticleManager {
         double maxY = minY + height;
         double maxZ = z + radius;
 
+        if (world instanceof SporeCloudAccumulatorAccess access) {
+            // Overlapping clouds are merged and resolved together at the end of the tick
+            access.worldsinger$getSporeCloudAccumulator()
+                    .add(sporeType, x, minY, z, radius, height, particleSize, particleCount,
+                            useDistance);
+            return;
+        }
+
         if (SporeParticleManager.shouldConvertToDead(world, minX, minY, minZ, maxX, maxY, maxZ,
                 sporeType)) {
             sporeType = DeadSpores.getInstance();
@@ -149,7 +153,7 @@ public final class SporeParticleManager {
     }
 
     // Spawn visual particles on server-side
-    private static void spawnVisualSporeParticles(ServerWorld world, AetherSpores sporeType,
+    static void spawnVisualSporeParticles(ServerWorld world, AetherSpores sporeType,
             double x, double minY, double z, double radius, double height, float particleSize,
             int count) {
         double deltaY;
@@ -185,15 +189,14 @@ public final class SporeParticleManager {
 
     private static AbstractSporeDustParticleEffect getCachedSporeParticleEffect(
             AetherSpores sporeType, float size, boolean floating) {
-        // Only cache particle effect if from the AetherSporeType enum
-        int id = sporeType.getId();
-        if (floating) {
-            id += FLOATING_ID_OFFSET;
+        int sizeIndex = MathHelper.floor(size * CACHED_SIZE_PRECISION);
+        AbstractSporeDustParticleEffect particleEffect = DustParticleEffectTable.get(sporeType,
+                sizeIndex, floating);
+        if (particleEffect == null) {
+            // Outside the range of cached sizes, which should be rare
+            return SporeParticleManager.createDustParticleEffect(sporeType, size, floating);
         }
-        int key = SporeParticleManager.hashTwoInts(id,
-                (int) Math.floor(size * CACHED_SIZE_PRECISION));
-        return cachedDustParticleEffects.computeIfAbsent(key,
-                k -> SporeParticleManager.createDustParticleEffect(sporeType, size, floating));
+        return particleEffect;
     }
 
     // Apply spore effect to entities within a given box
@@ -215,37 +218,40 @@ public final class SporeParticleManager {
         // Gather all candidate entities
         Vec3d centerPos = box.getCenter();
         List<LivingEntity> entitiesInRange = world.getEntitiesByClass(LivingEntity.class, box,
-                entity -> AetherSpores.sporesCanAffect(entity) && (
-                        entity.getType().isIn(ModEntityTypeTags.SPORES_ALWAYS_AFFECT)
-                                || box.contains(entity.getEyePos())));
+                entity -> SporeParticleManager.canSporesReach(entity, box));
 
         // Deal damage
         for (LivingEntity entity : entitiesInRange) {
-            // Duration is constant or linearly decreasing based on distance
-            int duration = SPORE_EFFECT_DURATION_TICKS_DEFAULT;
-            if (useDistance) {
-                double distance = centerPos.distanceTo(entity.getPos());
-                duration = (int) Math.max(SPORE_EFFECT_DURATION_TICKS_MIN,
-                        duration - distance * DISTANCE_MULTIPLIER);
-            }
+            int duration = SporeParticleManager.getSporeEffectDuration(entity, centerPos,
+                    useDistance);
             // Apply the effect which deals damage
             SporeParticleManager.applySporeEffect(entity, statusEffect, duration);
         }
     }
 
-    // https://stackoverflow.com/a/13871379
-    private static int hashTwoInts(int a, int b) {
-        return (a + b) * (a + b + 1) / 2 + a;
+    // Assumes the entity's bounding box already intersects the cloud
+    static boolean canSporesReach(LivingEntity entity, Box box) {
+        return AetherSpores.sporesCanAffect(entity) && (
+                entity.getType().isIn(ModEntityTypeTags.SPORES_ALWAYS_AFFECT) || box.contains(
+                        entity.getEyePos()));
+    }
+
+    // Duration is constant or linearly decreasing based on distance
+    static int getSporeEffectDuration(LivingEntity entity, Vec3d centerPos, boolean useDistance) {
+        int duration = SPORE_EFFECT_DURATION_TICKS_DEFAULT;
+        if (useDistance) {
+            double distance = centerPos.distanceTo(entity.getPos());
+            duration = (int) Math.max(SPORE_EFFECT_DURATION_TICKS_MIN,
+                    duration - distance * DISTANCE_MULTIPLIER);
+        }
+        return duration;
     }
 
     // Generate particle effect with given color and size
     private static AbstractSporeDustParticleEffect createDustParticleEffect(AetherSpores sporeType,
             float size, boolean floating) {
-        // Only cache particle effect if from the AetherSporeType enum
         // Lock size to nearest cached size precision to prevent unintentional imprecision
         size = ((int) (size * CACHED_SIZE_PRECISION)) / CACHED_SIZE_PRECISION;
-        // Worldsinger.LOGGER.info("Caching new dust particle effect ({}, {}), {} particles cached",
-        //         sporeType.getId(), size, cachedDustParticleEffects.size() + 1);
 
         // Create particle effect
         if (floating) {
@@ -287,5 +293,60 @@ public final class SporeParticleManager {
         SporeParticleManager.damageEntitiesInBox(world, sporeType, box, false);
     }
 
+    // Every particle effect for each spore type and cached size, indexed by spore ID and size.
+    // Built once on first use, after which it is never modified, so it can be shared by the client
+    // and server threads without locking.
+    private static final class DustParticleEffectTable {
+
+        private static final int MAX_SIZE_INDEX = MathHelper.floor(
+                MAX_PARTICLE_SIZE * CACHED_SIZE_PRECISION);
+        private static final AbstractSporeDustParticleEffect[][] FALLING_EFFECTS;
+        private static final AbstractSporeDustParticleEffect[][] FLOATING_EFFECTS;
+
+        static {
+            // All spore types are created during block and item registration, before any
+            // particles can be spawned
+            int maxId = 0;
+            for (AetherSpores sporeType : AetherSpores.getAetherSporeMap().values()) {
+                maxId = Math.max(maxId, sporeType.getId());
+            }
+            FALLING_EFFECTS = new AbstractSporeDustParticleEffect[maxId + 1][];
+            FLOATING_EFFECTS = new AbstractSporeDustParticleEffect[maxId + 1][];
+            for (AetherSpores sporeType : AetherSpores.getAetherSporeMap().values()) {
+                FALLING_EFFECTS[sporeType.getId()] = createEffects(sporeType, false);
+                FLOATING_EFFECTS[sporeType.getId()] = createEffects(sporeType, true);
+            }
+        }
+
+        private static AbstractSporeDustParticleEffect[] createEffects(AetherSpores sporeType,
+                boolean floating) {
+            AbstractSporeDustParticleEffect[] effects =
+                    new AbstractSporeDustParticleEffect[MAX_SIZE_INDEX + 1];
+            for (int i = 0; i <= MAX_SIZE_INDEX; ++i) {
+                // Sizes are already locked to the cached precision
+                float size = i / CACHED_SIZE_PRECISION;
+                effects[i] = floating ? new SporeDustParticleEffect(sporeType, size)
+                        : new FallingSporeDustParticleEffect(sporeType, size);
+            }
+            return effects;
+        }
+
+        // Returns null if there is no cached effect for these values
+        private static AbstractSporeDustParticleEffect get(AetherSpores sporeType, int sizeIndex,
+                boolean floating) {
+            int id = sporeType.getId();
+            if (sizeIndex < 0 || sizeIndex > MAX_SIZE_INDEX || id < 0
+                    || id >= FALLING_EFFECTS.length) {
+                return null;
+            }
+            AbstractSporeDustParticleEffect[] effects = floating ? FLOATING_EFFECTS[id]
+                    : FALLING_EFFECTS[id];
+            if (effects == null || effects[sizeIndex].getSporeType() != sporeType) {
+                return null;
+            }
+            return effects[sizeIndex];
+        }
+    }
+
     private SporeParticleManager() {}
 }
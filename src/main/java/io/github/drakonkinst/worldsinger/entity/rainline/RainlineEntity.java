@@ -27,9 +27,11 @@ package io.github.drakonkinst.worldsinger.entity.rainline;
 import io.github.drakonkinst.worldsinger.block.WaterReactiveBlock;
 import io.github.drakonkinst.worldsinger.cosmere.lumar.LumarManager;
 import io.github.drakonkinst.worldsinger.cosmere.lumar.LumarManagerAccess;
+import io.github.drakonkinst.worldsinger.cosmere.lumar.RainlineIndex.IndexedRainline;
 import io.github.drakonkinst.worldsinger.cosmere.lumar.RainlineManager;
 import io.github.drakonkinst.worldsinger.fluid.WaterReactiveFluid;
 import io.github.drakonkinst.worldsinger.registry.tag.ModBlockTags;
+import it.unimi.dsi.fastutil.longs.LongBytePair;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.entity.Entity;
@@ -45,12 +47,13 @@ import net.minecraft.util.profiler.Profiler;
 import net.minecraft.world.Heightmap.Type;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.Biome.Precipitation;
+import org.jetbrains.annotations.Nullable;
 import software.bernie.geckolib.animatable.GeoEntity;
 import software.bernie.geckolib.animatable.instance.AnimatableInstanceCache;
 import software.bernie.geckolib.animation.AnimatableManager.ControllerRegistrar;
 import software.bernie.geckolib.util.GeckoLibUtil;
 
-public class RainlineEntity extends Entity implements GeoEntity {
+public class RainlineEntity extends Entity implements GeoEntity, IndexedRainline {
 
     private static final int HEIGHT_OFFSET = -64; // At most -1
     private static final int RANDOM_TICK_INTERVAL = 3;
@@ -82,6 +85,9 @@ public class RainlineEntity extends Entity implements GeoEntity {
         if (this.getWorld() instanceof ServerWorld serverWorld) {
             doWaterReactiveTicks(serverWorld);
             rainlineBehavior.serverTick(serverWorld, this);
+            ((LumarManagerAccess) serverWorld).worldsinger$getLumarManager()
+                    .getRainlineManager()
+                    .onRainlineMoved(this);
         }
     }
 
@@ -161,6 +167,15 @@ public class RainlineEntity extends Entity implements GeoEntity {
         this.rainlineBehavior = rainlineBehavior;
     }
 
+    @Override
+    @Nullable
+    public LongBytePair getFollowedPathId() {
+        if (rainlineBehavior instanceof RainlineFollowPathBehavior followPathBehavior) {
+            return followPathBehavior.getPathId();
+        }
+        return null;
+    }
+
     @Override
     public void registerControllers(ControllerRegistrar controllers) {
         // No animations
@@ -385,12 +385,11 @@ public class CrimsonSporeGrowthEntity extends SporeGrowthEntity {
         int minDistanceIndex = 0;
         World world = this.getWorld();
         BlockPos originPos = this.getOrigin();
-        BlockPos.Mutable candidatePos = new BlockPos.Mutable();
         for (int i = 0; i < directionCandidates.size(); ++i) {
             Int3 direction = directionCandidates.get(i);
-            candidatePos.set(currPos.getX() + direction.x(), currPos.getY() + direction.y(),
+            scratchPos.set(currPos.getX() + direction.x(), currPos.getY() + direction.y(),
                     currPos.getZ() + direction.z());
-            float distanceSq = this.getDistanceSqToTargetDir(originPos, candidatePos);
+            float distanceSq = this.getDistanceSqToTargetDir(originPos, scratchPos);
             if (distanceSq < minDistanceSq) {
                 minDistanceSq = distanceSq;
                 minDistanceIndex = i;
@@ -398,9 +397,10 @@ public class CrimsonSporeGrowthEntity extends SporeGrowthEntity {
         }
 
         Int3 minDistanceDirection = directionCandidates.get(minDistanceIndex);
-        BlockPos minDistancePos = currPos.add(minDistanceDirection.x(), minDistanceDirection.y(),
-                minDistanceDirection.z());
-        BlockState minDistanceState = world.getBlockState(minDistancePos);
+        scratchPos.set(currPos.getX() + minDistanceDirection.x(),
+                currPos.getY() + minDistanceDirection.y(),
+                currPos.getZ() + minDistanceDirection.z());
+        BlockState minDistanceState = world.getBlockState(scratchPos);
 
         // Failed to find a valid direction, so just go randomly
         if (!this.canBreakOrGrow(minDistanceState, true)) {
@@ -412,9 +412,10 @@ public class CrimsonSporeGrowthEntity extends SporeGrowthEntity {
     }
 
     private Int3 getNextDirectionForSpikeBlock(boolean allowPassthrough) {
-        BlockPos nextPos = this.getBlockPos()
-                .add(primaryDirection.x(), primaryDirection.y(), primaryDirection.z());
-        BlockState nextState = this.getWorld().getBlockState(nextPos);
+        BlockPos currPos = this.getBlockPos();
+        scratchPos.set(currPos.getX() + primaryDirection.x(), currPos.getY() + primaryDirection.y(),
+                currPos.getZ() + primaryDirection.z());
+        BlockState nextState = this.getWorld().getBlockState(scratchPos);
         if (this.canBreakOrGrow(nextState, allowPassthrough)) {
             return primaryDirection;
         } else {
@@ -301,19 +301,18 @@ public class RoseiteSporeGrowthEntity extends SporeGrowthEntity {
     }
 
     private int getNeighborBonus(World world, BlockPos pos) {
-        BlockPos.Mutable mutable = new BlockPos.Mutable();
         int weightBonus = 0;
         int numNeighbors = 0;
         boolean hugsBlock = false;
         for (Direction direction : ModConstants.CARDINAL_DIRECTIONS) {
-            mutable.set(pos.offset(direction));
-            BlockState state = world.getBlockState(mutable);
+            scratchPos.set(pos, direction);
+            BlockState state = world.getBlockState(scratchPos);
             if (isGrowthBlock(state)) {
                 numNeighbors++;
             } else if (state.isIn(ModBlockTags.AETHER_SPORE_SEA_BLOCKS)) {
                 // Prefer to move away from the spore sea
                 weightBonus -= 20;
-            } else if (state.isSideSolidFullSquare(world, mutable, direction.getOpposite())) {
+            } else if (state.isSideSolidFullSquare(world, scratchPos, direction.getOpposite())) {
                 // Prefer to wrap around blocks
                 hugsBlock = true;
             }
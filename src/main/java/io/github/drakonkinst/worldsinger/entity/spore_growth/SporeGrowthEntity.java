@@ -24,6 +24,7 @@
 package io.github.drakonkinst.worldsinger.entity.spore_growth;
 
 import io.github.drakonkinst.worldsinger.cosmere.WaterReactionManager;
+import io.github.drakonkinst.worldsinger.cosmere.lumar.SporeGrowthEffectBatchAccess;
 import io.github.drakonkinst.worldsinger.cosmere.lumar.SporeGrowthMovement;
 import io.github.drakonkinst.worldsinger.cosmere.lumar.SporeKillingUtil;
 import io.github.drakonkinst.worldsinger.entity.ServerSideEntity;
@@ -31,10 +32,6 @@ import io.github.drakonkinst.worldsinger.registry.tag.ModBlockTags;
 import io.github.drakonkinst.worldsinger.util.ModConstants;
 import io.github.drakonkinst.worldsinger.util.ModProperties;
 import io.github.drakonkinst.worldsinger.util.math.Int3;
-import it.unimi.dsi.fastutil.ints.IntArrayList;
-import it.unimi.dsi.fastutil.ints.IntList;
-import java.util.ArrayList;
-import java.util.List;
 import net.minecraft.block.BlockState;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityType;
@@ -46,7 +43,6 @@ import net.minecraft.registry.tag.FluidTags;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.BlockPos.Mutable;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.math.random.Random;
@@ -67,6 +63,7 @@ public abstract class SporeGrowthEntity extends ServerSideEntity {
     private static final String INITIAL_GROWTH_KEY = "InitialGrowth";
 
     private static final int DIRECTION_ARRAY_SIZE = 6;
+    private static final Int3[] GROWTH_DIRECTIONS = Int3.CARDINAL_3D.toArray(new Int3[0]);
     private static final int MAX_PLACE_ATTEMPTS = 3;
     private static final int MAX_AGE_TICKS = 20 * 10;
     private static final int SPORE_DRAIN_NEAR_SPORE_KILLABLE = 50;
@@ -107,6 +104,14 @@ public abstract class SporeGrowthEntity extends ServerSideEntity {
     private BlockPos lastPos = null;
     private double currentForceMagnitude = 0.0;
 
+    // Reusable buffers, so that choosing a direction each tick does not allocate
+    private final BlockPos.Mutable candidatePos = new BlockPos.Mutable();
+    private final Int3[] candidateDirections = new Int3[DIRECTION_ARRAY_SIZE];
+    private final int[] candidateWeights = new int[DIRECTION_ARRAY_SIZE];
+    private final Direction[] decoratorDirections = new Direction[DIRECTION_ARRAY_SIZE];
+    // Scratch position for subclasses. Not preserved across calls to getWeight()
+    protected final BlockPos.Mutable scratchPos = new BlockPos.Mutable();
+
     public SporeGrowthEntity(EntityType<?> entityType, World world) {
         super(entityType, world);
     }
@@ -184,13 +189,30 @@ public abstract class SporeGrowthEntity extends ServerSideEntity {
         }
 
         if (!this.getWorld().isClient()) {
+            // Checked even while waiting, so that a backlog does not keep the entity alive
             if (this.shouldBeDead()) {
                 if (this.getSpores() > 0) {
                     this.onEarlyDiscard();
                 }
                 this.discard();
-            } else {
-                this.grow();
+                return;
+            }
+
+            SporeGrowthScheduler scheduler = null;
+            if (this.getWorld() instanceof SporeGrowthSchedulerAccess access) {
+                scheduler = access.worldsinger$getSporeGrowthScheduler();
+                // Still waiting for its last growth to run
+                if (scheduler.isScheduled(this)) {
+                    return;
+                }
+            }
+
+            if (this.isGrowthDue()) {
+                if (scheduler != null) {
+                    scheduler.schedule(this);
+                } else {
+                    this.grow();
+                }
             }
         }
     }
@@ -203,21 +225,27 @@ public abstract class SporeGrowthEntity extends ServerSideEntity {
         // Reset CATALYZED state for self and all neighboring blocks
         SporeGrowthEntity.resetCatalyzed(world, pos);
         for (Direction direction : ModConstants.CARDINAL_DIRECTIONS) {
-            SporeGrowthEntity.resetCatalyzed(world, mutable.set(pos.offset(direction)));
+            SporeGrowthEntity.resetCatalyzed(world, mutable.set(pos, direction));
         }
     }
 
-    // Performs a tick's worth of growth.
-    private void grow() {
+    // Slower growths update once every few ticks, while faster growths update every tick
+    private boolean isGrowthDue() {
         int growthDelay = this.getGrowthDelay();
         if (growthDelay > 0) {
-            // Slower growths update once every few ticks
-            if ((age + this.getId()) % growthDelay == 0) {
-                if (this.shouldRecalculateForces()) {
-                    this.recalculateForces();
-                }
-                this.doGrowStep();
+            return (age + this.getId()) % growthDelay == 0;
+        }
+        return growthDelay < 0;
+    }
+
+    // Performs a tick's worth of growth. Called by the scheduler once the growth is due.
+    void grow() {
+        int growthDelay = this.getGrowthDelay();
+        if (growthDelay > 0) {
+            if (this.shouldRecalculateForces()) {
+                this.recalculateForces();
             }
+            this.doGrowStep();
         } else {
             // Faster growths update multiple times in the same tick
             // Only recalculate forces once per tick, leading to less precision when moving quickly
@@ -320,20 +348,22 @@ public abstract class SporeGrowthEntity extends ServerSideEntity {
         return success;
     }
 
-    private Int3 chooseWeighted(List<Int3> candidates, IntList weights, int weightSum) {
-        if (candidates.isEmpty()) {
+    // Chooses among the first numCandidates candidates, weighted by the corresponding weights
+    protected static Int3 chooseWeighted(Int3[] candidates, int[] weights, int numCandidates,
+            int weightSum) {
+        if (numCandidates <= 0) {
             return Int3.ZERO;
         }
-        if (candidates.size() == 1) {
-            return candidates.get(0);
+        if (numCandidates == 1) {
+            return candidates[0];
         }
 
         int currentWeight = 0;
         int targetWeight = random.nextInt(weightSum);
-        for (int i = 0; i < candidates.size(); ++i) {
-            currentWeight += weights.getInt(i);
+        for (int i = 0; i < numCandidates; ++i) {
+            currentWeight += weights[i];
             if (currentWeight >= targetWeight) {
-                return candidates.get(i);
+                return candidates[i];
             }
         }
         return Int3.ZERO;
@@ -387,26 +417,25 @@ public abstract class SporeGrowthEntity extends ServerSideEntity {
     protected Int3 getNextDirection(boolean allowPassthrough) {
         World world = this.getWorld();
         BlockPos pos = this.getBlockPos();
-        Mutable mutable = new Mutable();
-        List<Int3> candidates = new ArrayList<>(DIRECTION_ARRAY_SIZE);
-        IntList weights = new IntArrayList(DIRECTION_ARRAY_SIZE);
+        int numCandidates = 0;
         int weightSum = 0;
-        for (Int3 direction : Int3.CARDINAL_3D) {
-            if (direction.isZero() || direction.equals(lastDir.opposite())) {
+        for (Int3 direction : GROWTH_DIRECTIONS) {
+            if (direction.isOppositeOf(lastDir)) {
                 continue;
             }
-            mutable.set(pos.getX() + direction.x(), pos.getY() + direction.y(),
+            candidatePos.set(pos.getX() + direction.x(), pos.getY() + direction.y(),
                     pos.getZ() + direction.z());
-            int weight = this.getWeight(world, mutable, direction, allowPassthrough);
+            int weight = this.getWeight(world, candidatePos, direction, allowPassthrough);
             if (weight > 0) {
-                candidates.add(direction);
-                weights.add(weight);
+                candidateDirections[numCandidates] = direction;
+                candidateWeights[numCandidates] = weight;
+                ++numCandidates;
                 weightSum += weight;
             }
         }
 
-        Int3 nextDirection = chooseWeighted(candidates, weights, weightSum);
-        return nextDirection;
+        return SporeGrowthEntity.chooseWeighted(candidateDirections, candidateWeights,
+                numCandidates, weightSum);
     }
 
     protected void drainSpores(int cost) {
@@ -457,20 +486,23 @@ public abstract class SporeGrowthEntity extends ServerSideEntity {
             return;
         }
 
-        List<Direction> validDirections = new ArrayList<>(6);
         BlockPos pos = this.getBlockPos();
-        BlockPos.Mutable mutable = new BlockPos.Mutable();
+        int numValid = 0;
         for (Direction direction : ModConstants.CARDINAL_DIRECTIONS) {
-            mutable.set(pos.offset(direction));
-            if (this.canPlaceDecorator(world.getBlockState(mutable))) {
-                validDirections.add(direction);
+            candidatePos.set(pos, direction);
+            if (this.canPlaceDecorator(world.getBlockState(candidatePos))) {
+                decoratorDirections[numValid++] = direction;
             }
         }
 
         int numSpawned = 0;
-        while (!validDirections.isEmpty() && numSpawned < numIterations) {
-            int index = random.nextInt(validDirections.size());
-            Direction direction = validDirections.remove(index);
+        while (numValid > 0 && numSpawned < numIterations) {
+            int index = random.nextInt(numValid);
+            Direction direction = decoratorDirections[index];
+            // Remove while preserving order, to match the previous list-based behavior
+            System.arraycopy(decoratorDirections, index + 1, decoratorDirections, index,
+                    numValid - index - 1);
+            --numValid;
             this.placeDecorator(pos.offset(direction), direction);
             numSpawned += 1;
         }
@@ -499,6 +531,13 @@ public abstract class SporeGrowthEntity extends ServerSideEntity {
         }
         this.drainSpores(cost);
 
+        if (this.getWorld() instanceof SporeGrowthEffectBatchAccess access) {
+            // Effects are coalesced per chunk section and emitted at the end of the tick
+            access.worldsinger$getSporeGrowthEffectBatch()
+                    .addEffects(pos, state, showParticles, playSound);
+            return;
+        }
+
         if (showParticles) {
             this.spawnParticles(pos.toCenterPos(), state);
         }
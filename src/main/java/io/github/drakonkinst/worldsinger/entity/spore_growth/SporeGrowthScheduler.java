@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023-2024 Drakonkinst
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.drakonkinst.worldsinger.entity.spore_growth;
+
+import io.github.drakonkinst.worldsinger.Worldsinger;
+import io.github.drakonkinst.worldsinger.WorldsingerConfig;
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
+import net.minecraft.util.Util;
+
+// Runs spore growth steps under a per-tick time budget. Entities are queued as their growth
+// comes due and processed in first-in, first-out order, so growths left over from a busy tick
+// go first on the next one and none of them are starved.
+public class SporeGrowthScheduler {
+
+    private static final long BACKLOG_LOG_INTERVAL_MILLIS = 10000;
+
+    private final ReferenceLinkedOpenHashSet<SporeGrowthEntity> queue =
+            new ReferenceLinkedOpenHashSet<>();
+    private long lastBacklogLogTime = 0;
+    private int lastProcessedCount = 0;
+
+    // Returns false if the entity is already waiting for its turn
+    public boolean schedule(SporeGrowthEntity entity) {
+        return queue.add(entity);
+    }
+
+    public boolean isScheduled(SporeGrowthEntity entity) {
+        return queue.contains(entity);
+    }
+
+    // Number of growths still waiting for their turn
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    // Number of growths that grew during the most recent tick
+    public int getLastProcessedCount() {
+        return lastProcessedCount;
+    }
+
+    public void serverTick() {
+        if (queue.isEmpty()) {
+            lastProcessedCount = 0;
+            return;
+        }
+        int processedCount = 0;
+        long budgetNanos = (long) (WorldsingerConfig.instance().getSporeGrowthBudgetMillis()
+                * 1_000_000L);
+        long startTime = Util.getMeasuringTimeNano();
+        // Always process at least one growth so that the queue keeps moving
+        do {
+            SporeGrowthEntity entity = queue.removeFirst();
+            if (!entity.isRemoved()) {
+                entity.grow();
+                ++processedCount;
+            }
+        } while (!queue.isEmpty() && Util.getMeasuringTimeNano() - startTime < budgetNanos);
+        lastProcessedCount = processedCount;
+
+        // A lasting backlog means the budget is too small for the amount of growth going on
+        if (!queue.isEmpty()) {
+            long now = Util.getMeasuringTimeMs();
+            if (now - lastBacklogLogTime >= BACKLOG_LOG_INTERVAL_MILLIS) {
+                lastBacklogLogTime = now;
+                Worldsinger.LOGGER.warn("Spore growth backlog: {} queued, {} processed this tick",
+                        queue.size(), processedCount);
+            }
+        }
+    }
+}
@@ -173,13 +173,12 @@ public class VerdantSporeGrowthEntity extends SporeGrowthEntity {
     }
 
     private int getNeighborBonus(World world, BlockPos pos) {
-        BlockPos.Mutable mutable = new BlockPos.Mutable();
         int weightBonus = 0;
         int vineNeighbors = 0;
         boolean hugsBlock = false;
         for (Direction direction : ModConstants.CARDINAL_DIRECTIONS) {
-            mutable.set(pos.offset(direction));
-            BlockState state = world.getBlockState(mutable);
+            scratchPos.set(pos, direction);
+            BlockState state = world.getBlockState(scratchPos);
             if (state.isIn(ModBlockTags.ALL_VERDANT_GROWTH)) {
                 // Prefer NOT to be adjacent to too many other of the same block
                 if (this.getStage() == 0 && state.isIn(ModBlockTags.VERDANT_VINE_BLOCK)
@@ -191,7 +190,7 @@ public class VerdantSporeGrowthEntity extends SporeGrowthEntity {
             } else if (state.isIn(ModBlockTags.AETHER_SPORE_SEA_BLOCKS)) {
                 // Prefer to move away from the spore sea
                 weightBonus -= 20;
-            } else if (state.isSideSolidFullSquare(world, mutable, direction.getOpposite())) {
+            } else if (state.isSideSolidFullSquare(world, scratchPos, direction.getOpposite())) {
                 // Prefer to wrap around blocks
                 hugsBlock = true;
             }
@@ -26,11 +26,22 @@ package io.github.drakonkinst.worldsinger.event;
 import io.github.drakonkinst.worldsinger.api.ModAttachmentTypes;
 import io.github.drakonkinst.worldsinger.api.sync.AttachmentSync;
 import io.github.drakonkinst.worldsinger.block.LivingSporeGrowthBlock;
+import io.github.drakonkinst.worldsinger.block.SporeFluidizationQueueAccess;
+import io.github.drakonkinst.worldsinger.cosmere.MetalBlockIndexAccess;
 import io.github.drakonkinst.worldsinger.cosmere.lumar.LumarManagerAccess;
 import io.github.drakonkinst.worldsinger.cosmere.lumar.MidnightAetherBondManager;
+import io.github.drakonkinst.worldsinger.cosmere.lumar.SporeCloudAccumulatorAccess;
+import io.github.drakonkinst.worldsinger.cosmere.lumar.SporeGrowthEffectBatchAccess;
+import io.github.drakonkinst.worldsinger.cosmere.lumar.SporeKillingIndexAccess;
 import io.github.drakonkinst.worldsinger.cosmere.lumar.SporeKillingUtil;
 import io.github.drakonkinst.worldsinger.effect.ModStatusEffects;
+import io.github.drakonkinst.worldsinger.entity.rainline.RainlineEntity;
+import io.github.drakonkinst.worldsinger.entity.spore_growth.SporeGrowthSchedulerAccess;
+import io.github.drakonkinst.worldsinger.fluid.Fluidlogged;
 import io.github.drakonkinst.worldsinger.registry.tag.ModItemTags;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.event.player.AttackBlockCallback;
 import net.fabricmc.fabric.api.event.player.UseBlockCallback;
@@ -40,6 +51,7 @@ import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.effect.StatusEffectInstance;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.ActionResult;
 import net.minecraft.util.math.BlockPos;
 
@@ -129,8 +141,52 @@ public final class ModEventHandlers {
         PlayerSyncCallback.EVENT.register(
                 (player -> AttachmentSync.syncEntityAttachments(player, player)));
 
+        // Keep the rainline index in sync with loaded rainlines
+        ServerEntityEvents.ENTITY_LOAD.register((entity, world) -> {
+            if (entity instanceof RainlineEntity rainlineEntity) {
+                ((LumarManagerAccess) world).worldsinger$getLumarManager()
+                        .getRainlineManager()
+                        .onRainlineLoaded(rainlineEntity);
+            }
+        });
+        ServerEntityEvents.ENTITY_UNLOAD.register((entity, world) -> {
+            if (entity instanceof RainlineEntity rainlineEntity) {
+                ((LumarManagerAccess) world).worldsinger$getLumarManager()
+                        .getRainlineManager()
+                        .onRainlineUnloaded(rainlineEntity);
+            }
+        });
+
+        // Keep block indices in sync with loaded chunks and data packs
+        ServerChunkEvents.CHUNK_LOAD.register((world, chunk) -> {
+            ((SporeFluidizationQueueAccess) world).worldsinger$getSporeFluidizationQueue()
+                    .onChunkLoaded(chunk.getPos());
+        });
+        ServerChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> {
+            ((SporeKillingIndexAccess) world).worldsinger$getSporeKillingIndex()
+                    .onChunkUnloaded(chunk.getPos());
+            ((MetalBlockIndexAccess) world).worldsinger$getMetalBlockIndex()
+                    .onChunkUnloaded(chunk.getPos());
+        });
+        // Registries are frozen by the time a server starts
+        ServerLifecycleEvents.SERVER_STARTING.register(server -> Fluidlogged.freezeLookupTables());
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resourceManager, success) -> {
+            for (ServerWorld world : server.getWorlds()) {
+                ((SporeKillingIndexAccess) world).worldsinger$getSporeKillingIndex().clear();
+                ((MetalBlockIndexAccess) world).worldsinger$getMetalBlockIndex().clear();
+            }
+        });
+
         ServerTickEvents.END_WORLD_TICK.register(world -> {
             ((LumarManagerAccess) world).worldsinger$getLumarManager().serverTick(world);
+            ((SporeFluidizationQueueAccess) world).worldsinger$getSporeFluidizationQueue()
+                    .serverTick(world);
+            ((SporeGrowthSchedulerAccess) world).worldsinger$getSporeGrowthScheduler()
+                    .serverTick();
+            ((SporeGrowthEffectBatchAccess) world).worldsinger$getSporeGrowthEffectBatch()
+                    .flush(world);
+            ((SporeCloudAccumulatorAccess) world).worldsinger$getSporeCloudAccumulator()
+                    .flush(world);
         });
     }
 
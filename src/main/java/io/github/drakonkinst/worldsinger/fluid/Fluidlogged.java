@@ -25,12 +25,14 @@ package io.github.drakonkinst.worldsinger.fluid;
 
 import io.github.drakonkinst.worldsinger.WorldsingerConfig;
 import io.github.drakonkinst.worldsinger.util.ModProperties;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.FluidBlock;
 import net.minecraft.fluid.Fluid;
+import net.minecraft.fluid.FluidState;
 import net.minecraft.fluid.Fluids;
 import net.minecraft.registry.Registries;
 import net.minecraft.state.property.Properties;
@@ -43,6 +45,44 @@ public final class Fluidlogged {
             .getFluidloggableFluids();
     private static final Map<Fluid, FluidBlock> fluidToFluidBlocks = new HashMap<>();
 
+    // Lookup tables indexed by FLUIDLOGGED value, only built once the fluid registry is frozen
+    private static volatile Fluid[] fluidTable;
+    private static volatile FluidState[] fluidStateTable;
+    private static volatile Reference2IntOpenHashMap<Fluid> fluidIndexTable;
+
+    // Safe to call more than once, but fluids must no longer be registered afterward
+    public static synchronized void freezeLookupTables() {
+        if (fluidTable != null) {
+            return;
+        }
+        int numValues = WATERLOGGABLE_FLUIDS.size() + 1;
+        Fluid[] fluids = new Fluid[numValues];
+        FluidState[] fluidStates = new FluidState[numValues];
+        Reference2IntOpenHashMap<Fluid> fluidIndices = new Reference2IntOpenHashMap<>();
+        fluids[0] = Fluids.EMPTY;
+        fluidStates[0] = Fluids.EMPTY.getDefaultState();
+        for (int i = 1; i < numValues; ++i) {
+            Identifier id = WATERLOGGABLE_FLUIDS.get(i - 1);
+            if (id == null) {
+                continue;
+            }
+            Fluid fluid = Registries.FLUID.get(id);
+            fluids[i] = fluid;
+            fluidStates[i] = fluid.getDefaultState();
+            if (!fluid.equals(Fluids.EMPTY)) {
+                // Match List.indexOf(), which favors the first occurrence
+                fluidIndices.putIfAbsent(fluid, i);
+            }
+        }
+        fluidStateTable = fluidStates;
+        fluidIndexTable = fluidIndices;
+        fluidTable = fluids;
+    }
+
+    public static boolean isFrozen() {
+        return fluidTable != null;
+    }
+
     public static Fluid getFluid(BlockState state) {
         if (state.contains(Properties.WATERLOGGED) && state.get(Properties.WATERLOGGED)) {
             return Fluids.WATER;
@@ -50,6 +90,11 @@ public final class Fluidlogged {
         if (!state.contains(ModProperties.FLUIDLOGGED)) {
             return null;
         }
+        Fluid[] fluids = fluidTable;
+        if (fluids != null) {
+            int value = state.get(ModProperties.FLUIDLOGGED);
+            return value < fluids.length ? fluids[value] : null;
+        }
         int index = state.get(ModProperties.FLUIDLOGGED) - 1;
         if (index < 0) {
             return Fluids.EMPTY;
@@ -64,6 +109,20 @@ public final class Fluidlogged {
         return Registries.FLUID.get(id);
     }
 
+    // Returns null if the state does not override its fluid
+    public static FluidState getFluidState(BlockState state) {
+        if (state.contains(Properties.WATERLOGGED) && state.get(Properties.WATERLOGGED)) {
+            return Fluids.WATER.getDefaultState();
+        }
+        FluidState[] fluidStates = fluidStateTable;
+        if (fluidStates == null || !state.contains(ModProperties.FLUIDLOGGED)) {
+            Fluid fluid = getFluid(state);
+            return fluid == null ? null : fluid.getDefaultState();
+        }
+        int value = state.get(ModProperties.FLUIDLOGGED);
+        return value < fluidStates.length ? fluidStates[value] : null;
+    }
+
     public static void registerFluidBlockForFluid(Fluid fluid, FluidBlock fluidBlock) {
         fluidToFluidBlocks.put(fluid, fluidBlock);
     }
@@ -76,6 +135,10 @@ public final class Fluidlogged {
         if (fluid.equals(Fluids.EMPTY)) {
             return 0;
         }
+        Reference2IntOpenHashMap<Fluid> fluidIndices = fluidIndexTable;
+        if (fluidIndices != null) {
+            return fluidIndices.getInt(fluid);
+        }
         return Fluidlogged.WATERLOGGABLE_FLUIDS.indexOf(Registries.FLUID.getId(fluid)) + 1;
     }
 
@@ -27,6 +27,9 @@ import com.llamalad7.mixinextras.injector.ModifyReturnValue;
 import io.github.drakonkinst.datatables.DataTable;
 import io.github.drakonkinst.datatables.DataTableRegistry;
 import io.github.drakonkinst.worldsinger.block.SporeKillable;
+import io.github.drakonkinst.worldsinger.cosmere.InvestitureOcclusionCacheAccess;
+import io.github.drakonkinst.worldsinger.cosmere.MetalBlockIndexAccess;
+import io.github.drakonkinst.worldsinger.cosmere.lumar.SporeKillingIndexAccess;
 import io.github.drakonkinst.worldsinger.cosmere.lumar.SporeKillingUtil;
 import io.github.drakonkinst.worldsinger.fluid.FluidShapes;
 import io.github.drakonkinst.worldsinger.fluid.Fluidlogged;
@@ -70,6 +73,9 @@ public abstract class AbstractBlockStateMixin {
     @Shadow
     protected abstract BlockState asBlockState();
 
+    @Unique
+    private FluidState worldsinger$fluidState;
+
     @Redirect(method = "<init>", at = @At(value = "INVOKE", target = "Ljava/util/function/ToIntFunction;applyAsInt(Ljava/lang/Object;)I"))
     private <T> int injectLuminance(ToIntFunction<T> instance, T t) {
         if (t instanceof BlockState state && state.getEntries() != null && state.contains(
@@ -117,13 +123,21 @@ public abstract class AbstractBlockStateMixin {
         return originalShape;
     }
 
-    @Inject(method = "getFluidState", at = @At("RETURN"), cancellable = true)
-    private void worldsinger$supportMultipleFluidsInState(CallbackInfoReturnable<FluidState> cir) {
-        BlockState state = this.asBlockState();
-        Fluid fluid = Fluidlogged.getFluid(state);
-        if (fluid != null) {
-            cir.setReturnValue(fluid.getDefaultState());
+    @ModifyReturnValue(method = "getFluidState", at = @At("RETURN"))
+    private FluidState worldsinger$supportMultipleFluidsInState(FluidState original) {
+        FluidState cachedFluidState = this.worldsinger$fluidState;
+        if (cachedFluidState != null) {
+            return cachedFluidState;
+        }
+        FluidState fluidState = Fluidlogged.getFluidState(this.asBlockState());
+        if (fluidState == null) {
+            fluidState = original;
+        }
+        // Only cache once fluids can no longer be registered
+        if (Fluidlogged.isFrozen()) {
+            this.worldsinger$fluidState = fluidState;
         }
+        return fluidState;
     }
 
     @ModifyArg(method = "getCollisionShape(Lnet/minecraft/world/BlockView;Lnet/minecraft/util/math/BlockPos;Lnet/minecraft/block/ShapeContext;)Lnet/minecraft/util/shape/VoxelShape;", at = @At(value = "INVOKE", target = "Lnet/minecraft/block/Block;getCollisionShape(Lnet/minecraft/block/BlockState;Lnet/minecraft/world/BlockView;Lnet/minecraft/util/math/BlockPos;Lnet/minecraft/block/ShapeContext;)Lnet/minecraft/util/shape/VoxelShape;"), index = 0)
@@ -153,6 +167,18 @@ public abstract class AbstractBlockStateMixin {
     @Inject(method = "onStateReplaced", at = @At("TAIL"))
     private void addBlockPlaceBehaviors(World world, BlockPos pos, BlockState state, boolean moved,
             CallbackInfo ci) {
+        if (world instanceof SporeKillingIndexAccess access) {
+            access.worldsinger$getSporeKillingIndex()
+                    .onBlockChanged(pos, this.asBlockState(), state);
+        }
+        if (world instanceof MetalBlockIndexAccess access) {
+            access.worldsinger$getMetalBlockIndex()
+                    .onBlockChanged(pos, this.asBlockState(), state);
+        }
+        if (world instanceof InvestitureOcclusionCacheAccess access) {
+            access.worldsinger$getInvestitureOcclusionCache()
+                    .onBlockChanged(pos, this.asBlockState(), state);
+        }
         checkSporeKillingBehavior(world, pos, state);
         checkSporeKilledOnPlace(world, pos, state);
     }
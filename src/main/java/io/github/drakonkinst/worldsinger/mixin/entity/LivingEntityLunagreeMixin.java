@@ -44,6 +44,7 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.Heightmap.Type;
 import net.minecraft.world.World;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
@@ -51,6 +52,10 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 @Mixin(LivingEntity.class)
 public abstract class LivingEntityLunagreeMixin extends Entity implements Attackable {
 
+    // Spore effects last longer than this, so they are refreshed before they run out
+    @Unique
+    private static final int SPOREFALL_CHECK_INTERVAL = 10;
+
     public LivingEntityLunagreeMixin(EntityType<?> type, World world) {
         super(type, world);
     }
@@ -63,6 +68,10 @@ public abstract class LivingEntityLunagreeMixin extends Entity implements Attack
             return;
         }
 
+        // Stagger checks across entities so they do not all happen on the same tick
+        if ((this.age + this.getId()) % SPOREFALL_CHECK_INTERVAL != 0) {
+            return;
+        }
         if (this.getType().isIn(ModEntityTypeTags.SPORES_NEVER_AFFECT)) {
             return;
         }
@@ -70,6 +79,13 @@ public abstract class LivingEntityLunagreeMixin extends Entity implements Attack
                 || playerEntity.isSpectator())) {
             return;
         }
+
+        LunagreeGenerator manager = ((LumarManagerAccess) world).worldsinger$getLumarManager()
+                .getLunagreeGenerator();
+        if (!manager.isChunkInSporefallZone(this.getChunkPos().x, this.getChunkPos().z)) {
+            return;
+        }
+
         BlockPos blockPos = BlockPosUtil.toBlockPos(this.getEyePos());
         if (!world.isSkyVisible(blockPos)
                 || world.getTopY(Type.MOTION_BLOCKING, blockPos.getX(), blockPos.getZ())
@@ -77,8 +93,6 @@ public abstract class LivingEntityLunagreeMixin extends Entity implements Attack
             return;
         }
 
-        LunagreeGenerator manager = ((LumarManagerAccess) world).worldsinger$getLumarManager()
-                .getLunagreeGenerator();
         LunagreeLocation underLocation = manager.getNearestLunagree(entity.getBlockX(),
                 entity.getBlockZ(), LumarLunagreeGenerator.SPORE_FALL_RADIUS);
         if (underLocation == null) {
@@ -63,6 +63,11 @@ public abstract class PersistentStateManagerMixin implements PersistentByteDataM
         return persistentState;
     }
 
+    @Override
+    public File worldsinger$getFile(String id) {
+        return this.getFile(id);
+    }
+
     @SuppressWarnings("unchecked")
     @Unique
     @Nullable
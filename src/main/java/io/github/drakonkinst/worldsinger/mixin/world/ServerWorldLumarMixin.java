@@ -32,11 +32,11 @@ import io.github.drakonkinst.worldsinger.cosmere.lumar.LumarLunagreeGenerator;
 import io.github.drakonkinst.worldsinger.cosmere.lumar.LumarManager;
 import io.github.drakonkinst.worldsinger.cosmere.lumar.LumarRainlineManager;
 import io.github.drakonkinst.worldsinger.cosmere.lumar.LumarSeetheManager;
-import io.github.drakonkinst.worldsinger.cosmere.lumar.LunagreeGenerator;
 import io.github.drakonkinst.worldsinger.cosmere.lumar.LunagreeLocation;
 import io.github.drakonkinst.worldsinger.cosmere.lumar.RainlineManager;
 import io.github.drakonkinst.worldsinger.cosmere.lumar.SeetheManager;
 import io.github.drakonkinst.worldsinger.network.packet.SeetheUpdatePayload;
+import io.github.drakonkinst.worldsinger.world.PersistentByteDataManagerAccess;
 import java.util.List;
 import java.util.concurrent.Executor;
 import net.minecraft.block.Block;
@@ -91,11 +91,14 @@ public abstract class ServerWorldLumarMixin extends WorldLumarMixin implements
         if (CosmerePlanet.getPlanetFromKey(worldKey).equals(CosmerePlanet.LUMAR)) {
             // Create LumarManager
             SeetheManager seetheManager = this.getPersistentStateManager()
-                    .getOrCreate(LumarSeetheManager.getPersistentStateType(),
+                    .getOrCreate(LumarSeetheManager.getPersistentStateType(properties::getTime),
                             LumarSeetheManager.NAME);
-            LunagreeGenerator lunagreeGenerator = this.getPersistentStateManager()
-                    .getOrCreate(LumarLunagreeGenerator.getPersistentStateType(
-                            (ServerWorld) (Object) (this)), LumarLunagreeGenerator.NAME);
+            PersistentByteDataManagerAccess byteDataManager = (PersistentByteDataManagerAccess) this.getPersistentStateManager();
+            LumarLunagreeGenerator lunagreeGenerator = byteDataManager.worldsinger$getOrCreateFromBytes(
+                    LumarLunagreeGenerator.getByteDataType((ServerWorld) (Object) (this)),
+                    LumarLunagreeGenerator.NAME);
+            lunagreeGenerator.migrateLegacyData(
+                    byteDataManager.worldsinger$getFile(LumarLunagreeGenerator.LEGACY_NAME));
             RainlineManager rainlineManager = this.getPersistentStateManager()
                     .getOrCreate(LumarRainlineManager.getPersistentStateType(lunagreeGenerator),
                             LumarRainlineManager.NAME);
@@ -60,7 +60,7 @@ public abstract class WorldLumarMixin implements WorldAccess, AutoCloseable, Lum
             return original;
         }
         if ((Object) this instanceof ServerWorld serverWorld) {
-            return RainlineManager.shouldRainlineAffectBlocks(serverWorld, pos.toCenterPos());
+            return RainlineManager.shouldRainlineAffectBlocks(serverWorld, pos);
         }
         return false;
     }
@@ -23,22 +23,35 @@
  */
 package io.github.drakonkinst.worldsinger.util;
 
+import io.github.drakonkinst.worldsinger.cosmere.InvestitureOcclusionCacheAccess;
 import io.github.drakonkinst.worldsinger.registry.tag.ModBlockTags;
 import net.minecraft.block.Block;
 import net.minecraft.entity.Entity;
 import net.minecraft.registry.tag.TagKey;
-import net.minecraft.util.hit.HitResult;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
-import net.minecraft.world.BlockStateRaycastContext;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
 
 public final class BlockPosUtil {
 
+    // Matches the offset used by Vec3d.offset() for each ray
+    private static final double RAY_START_OFFSET = 1.0E-5f;
+    // Distance in blocks within which the start offset could change which blocks a ray visits
+    private static final double RAY_TIE_EPSILON = 1.0E-4;
+    private static final int RAY_CLEAR = 0;
+    private static final int RAY_BLOCKED = 1;
+    private static final int RAY_AMBIGUOUS = 2;
+
     public static boolean isInvestitureBlocked(World world, BlockPos emitterPos,
             BlockPos listenerPos) {
+        if (world instanceof InvestitureOcclusionCacheAccess access) {
+            return access.worldsinger$getInvestitureOcclusionCache()
+                    .isBlocked(world, emitterPos, listenerPos);
+        }
         return BlockPosUtil.isOccluded(world, emitterPos, listenerPos,
                 ModBlockTags.BLOCKS_INVESTITURE);
     }
@@ -47,18 +60,40 @@ public final class BlockPosUtil {
     // for their hitboxes? Maybe raycast from all corners of their bounding box
     public static boolean isOccluded(World world, BlockPos emitterPos, BlockPos listenerPos,
             TagKey<Block> blockTag) {
-        Vec3d fromPos = emitterPos.toCenterPos();
-        Vec3d toPos = listenerPos.toCenterPos();
-        return BlockPosUtil.isOccluded(world, fromPos, toPos, blockTag);
+        return BlockPosUtil.isOccluded(world, emitterPos.getX() + 0.5, emitterPos.getY() + 0.5,
+                emitterPos.getZ() + 0.5, listenerPos.getX() + 0.5, listenerPos.getY() + 0.5,
+                listenerPos.getZ() + 0.5, blockTag);
     }
 
     public static boolean isOccluded(World world, Vec3d fromPos, Vec3d toPos,
             TagKey<Block> blockTag) {
+        return BlockPosUtil.isOccluded(world, fromPos.getX(), fromPos.getY(), fromPos.getZ(),
+                toPos.getX(), toPos.getY(), toPos.getZ(), blockTag);
+    }
+
+    // Occluded only if rays starting slightly offset in every direction are all blocked. The
+    // offsets only matter when a ray passes exactly through an edge or corner, so try a single
+    // ray first and only fall back to all six if it runs into one of those ties.
+    private static boolean isOccluded(World world, double fromX, double fromY, double fromZ,
+            double toX, double toY, double toZ, TagKey<Block> blockTag) {
+        // BlockView.raycast() never hits anything when both ends are the same, which is what
+        // callers expect from an emitter and listener in the same block
+        if (MathHelper.floor(fromX) == MathHelper.floor(toX)
+                && MathHelper.floor(fromY) == MathHelper.floor(toY)
+                && MathHelper.floor(fromZ) == MathHelper.floor(toZ)) {
+            return false;
+        }
+        int result = BlockPosUtil.traceRay(world, fromX, fromY, fromZ, toX, toY, toZ, blockTag,
+                true);
+        if (result != RAY_AMBIGUOUS) {
+            return result == RAY_BLOCKED;
+        }
         for (Direction direction : ModConstants.CARDINAL_DIRECTIONS) {
-            Vec3d vec3d3 = fromPos.offset(direction, 1.0E-5f);
-            if (world.raycast(
-                            new BlockStateRaycastContext(vec3d3, toPos, state -> state.isIn(blockTag)))
-                    .getType() == HitResult.Type.BLOCK) {
+            double startX = fromX + direction.getOffsetX() * RAY_START_OFFSET;
+            double startY = fromY + direction.getOffsetY() * RAY_START_OFFSET;
+            double startZ = fromZ + direction.getOffsetZ() * RAY_START_OFFSET;
+            if (BlockPosUtil.traceRay(world, startX, startY, startZ, toX, toY, toZ, blockTag, false)
+                    == RAY_BLOCKED) {
                 continue;
             }
             return false;
@@ -66,6 +101,113 @@ public final class BlockPosUtil {
         return true;
     }
 
+    // Voxel traversal that visits the same blocks as BlockView.raycast(), but tests block states
+    // directly instead of going through a raycast context
+    private static int traceRay(World world, double fromX, double fromY, double fromZ,
+            double toX, double toY, double toZ, TagKey<Block> blockTag, boolean detectTies) {
+        double endX = MathHelper.lerp(-1.0E-7, toX, fromX);
+        double endY = MathHelper.lerp(-1.0E-7, toY, fromY);
+        double endZ = MathHelper.lerp(-1.0E-7, toZ, fromZ);
+        double startX = MathHelper.lerp(-1.0E-7, fromX, toX);
+        double startY = MathHelper.lerp(-1.0E-7, fromY, toY);
+        double startZ = MathHelper.lerp(-1.0E-7, fromZ, toZ);
+        int x = MathHelper.floor(startX);
+        int y = MathHelper.floor(startY);
+        int z = MathHelper.floor(startZ);
+        // The start offset could move the ray into a different block
+        if (detectTies && (BlockPosUtil.isNearBoundary(startX) || BlockPosUtil.isNearBoundary(
+                startY) || BlockPosUtil.isNearBoundary(startZ))) {
+            return RAY_AMBIGUOUS;
+        }
+
+        WorldChunk chunk = world.getChunk(x >> 4, z >> 4);
+        if (BlockPosUtil.isBlockInTag(world, chunk, x, y, z, blockTag)) {
+            return RAY_BLOCKED;
+        }
+
+        double deltaX = endX - startX;
+        double deltaY = endY - startY;
+        double deltaZ = endZ - startZ;
+        int stepX = MathHelper.sign(deltaX);
+        int stepY = MathHelper.sign(deltaY);
+        int stepZ = MathHelper.sign(deltaZ);
+        double tDeltaX = stepX == 0 ? Double.MAX_VALUE : stepX / deltaX;
+        double tDeltaY = stepY == 0 ? Double.MAX_VALUE : stepY / deltaY;
+        double tDeltaZ = stepZ == 0 ? Double.MAX_VALUE : stepZ / deltaZ;
+        double tMaxX = tDeltaX * (stepX > 0 ? 1.0 - MathHelper.fractionalPart(startX)
+                : MathHelper.fractionalPart(startX));
+        double tMaxY = tDeltaY * (stepY > 0 ? 1.0 - MathHelper.fractionalPart(startY)
+                : MathHelper.fractionalPart(startY));
+        double tMaxZ = tDeltaZ * (stepZ > 0 ? 1.0 - MathHelper.fractionalPart(startZ)
+                : MathHelper.fractionalPart(startZ));
+
+        while (tMaxX <= 1.0 || tMaxY <= 1.0 || tMaxZ <= 1.0) {
+            if (detectTies && BlockPosUtil.hasTie(tMaxX, tDeltaX, tMaxY, tDeltaY, tMaxZ,
+                    tDeltaZ)) {
+                return RAY_AMBIGUOUS;
+            }
+            if (tMaxX < tMaxY) {
+                if (tMaxX < tMaxZ) {
+                    x += stepX;
+                    tMaxX += tDeltaX;
+                } else {
+                    z += stepZ;
+                    tMaxZ += tDeltaZ;
+                }
+            } else if (tMaxY < tMaxZ) {
+                y += stepY;
+                tMaxY += tDeltaY;
+            } else {
+                z += stepZ;
+                tMaxZ += tDeltaZ;
+            }
+
+            if (chunk.getPos().x != x >> 4 || chunk.getPos().z != z >> 4) {
+                chunk = world.getChunk(x >> 4, z >> 4);
+            }
+            if (BlockPosUtil.isBlockInTag(world, chunk, x, y, z, blockTag)) {
+                return RAY_BLOCKED;
+            }
+        }
+        return RAY_CLEAR;
+    }
+
+    // Whether two crossings are close enough that the start offset could swap them, or a
+    // crossing is close enough to the end of the ray that it could be skipped. Tolerances are
+    // scaled by how far each crossing moves when the start position moves.
+    private static boolean hasTie(double tMaxX, double tDeltaX, double tMaxY, double tDeltaY,
+            double tMaxZ, double tDeltaZ) {
+        return BlockPosUtil.isTied(tMaxX, tDeltaX, tMaxY, tDeltaY) || BlockPosUtil.isTied(tMaxY,
+                tDeltaY, tMaxZ, tDeltaZ) || BlockPosUtil.isTied(tMaxX, tDeltaX, tMaxZ, tDeltaZ)
+                || BlockPosUtil.isTied(tMaxX, tDeltaX, 1.0, 0.0) || BlockPosUtil.isTied(tMaxY,
+                tDeltaY, 1.0, 0.0) || BlockPosUtil.isTied(tMaxZ, tDeltaZ, 1.0, 0.0);
+    }
+
+    private static boolean isTied(double tMaxA, double tDeltaA, double tMaxB, double tDeltaB) {
+        // Axes that are never crossed have infinite steps
+        if (tDeltaA == Double.MAX_VALUE || tDeltaB == Double.MAX_VALUE) {
+            return false;
+        }
+        return Math.abs(tMaxA - tMaxB) < RAY_TIE_EPSILON * (tDeltaA + tDeltaB);
+    }
+
+    private static boolean isNearBoundary(double value) {
+        double fraction = MathHelper.fractionalPart(value);
+        return fraction < RAY_TIE_EPSILON || fraction > 1.0 - RAY_TIE_EPSILON;
+    }
+
+    private static boolean isBlockInTag(World world, WorldChunk chunk, int x, int y, int z,
+            TagKey<Block> blockTag) {
+        if (world.isOutOfHeightLimit(y)) {
+            return false;
+        }
+        ChunkSection section = chunk.getSection(world.getSectionIndex(y));
+        if (section.isEmpty()) {
+            return false;
+        }
+        return section.getBlockState(x & 15, y & 15, z & 15).isIn(blockTag);
+    }
+
     public static boolean isInvestitureBlocked(World world, Vec3d emitterPos, Vec3d listenerPos) {
         return BlockPosUtil.isOccluded(world, emitterPos, listenerPos,
                 ModBlockTags.BLOCKS_INVESTITURE);
@@ -119,10 +119,23 @@ public class JsonStack {
         return child(key, JsonType.NUMBER).getAsInt();
     }
 
+    public int getIntOrElse(String key, int defaultValue) {
+        OptionalInt child = maybeInt(key);
+        return child.orElse(defaultValue);
+    }
+
+    // Gson truncates fractional numbers when reading them as integers, so reject them instead
     public OptionalInt maybeInt(String key) {
         Optional<JsonPrimitive> child = maybeChild(key, JsonType.NUMBER);
-        return child.map(jsonPrimitive -> OptionalInt.of(jsonPrimitive.getAsInt()))
-                .orElseGet(OptionalInt::empty);
+        if (child.isEmpty()) {
+            return OptionalInt.empty();
+        }
+        double value = child.get().getAsDouble();
+        if (value != Math.rint(value) || value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            errors.add(joinPath() + '/' + key + " must be an integer not " + child.get());
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of((int) value);
     }
 
     public double getDouble(String key) {
@@ -70,6 +70,11 @@ public record Int3(int x, int y, int z) {
         return new Int3(-x, -y, -z);
     }
 
+    // Equivalent to other.equals(this.opposite()), without allocating
+    public boolean isOppositeOf(Int3 other) {
+        return x == -other.x && y == -other.y && z == -other.z;
+    }
+
     // Converts all values to their sign
     public Int3 toSigns() {
         return new Int3(Integer.signum(x), Integer.signum(y), Integer.signum(z));
@@ -41,7 +41,10 @@ public abstract class PersistentByteData extends PersistentState {
 
     @Override
     public void save(File file, RegistryWrapper.WrapperLookup registryLookup) {
-        saveBytesToFile(file);
+        if (this.isDirty()) {
+            saveBytesToFile(file);
+            this.setDirty(false);
+        }
     }
 
     // Does not use NBT
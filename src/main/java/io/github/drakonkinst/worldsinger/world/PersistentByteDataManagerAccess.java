@@ -25,9 +25,12 @@
 package io.github.drakonkinst.worldsinger.world;
 
 import io.github.drakonkinst.worldsinger.world.PersistentByteData.ByteDataType;
+import java.io.File;
 
 public interface PersistentByteDataManagerAccess {
 
     <T extends PersistentByteData> T worldsinger$getOrCreateFromBytes(ByteDataType<T> type,
             String id);
+
+    File worldsinger$getFile(String id);
 }
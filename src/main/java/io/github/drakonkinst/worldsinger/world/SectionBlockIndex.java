@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023-2024 Drakonkinst
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.drakonkinst.worldsinger.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.ShortArrayList;
+import java.util.Arrays;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+
+// Tracks the positions of a sparse set of blocks in each chunk section, so that searches only need
+// to look at the few blocks that matter. Sections are scanned the first time they are needed,
+// then kept up to date through block changes until their chunk is unloaded.
+public abstract class SectionBlockIndex {
+
+    private static final short[] NO_EMITTERS = new short[0];
+
+    private final ServerWorld world;
+    // Positions are packed relative to the section
+    private final Long2ObjectMap<short[]> sectionEmitters = new Long2ObjectOpenHashMap<>();
+
+    public SectionBlockIndex(ServerWorld world) {
+        this.world = world;
+    }
+
+    protected abstract boolean isEmitter(BlockState state);
+
+    public short[] getEmitters(int sectionX, int sectionY, int sectionZ) {
+        // Not cached, since unloading only clears sections inside the world
+        if (sectionY < world.getBottomSectionCoord() || sectionY >= world.getTopSectionCoord()) {
+            return NO_EMITTERS;
+        }
+        long sectionKey = ChunkSectionPos.asLong(sectionX, sectionY, sectionZ);
+        short[] emitters = sectionEmitters.get(sectionKey);
+        if (emitters == null) {
+            emitters = scanSection(sectionX, sectionY, sectionZ);
+            sectionEmitters.put(sectionKey, emitters);
+        }
+        return emitters;
+    }
+
+    public void onBlockChanged(BlockPos pos, BlockState oldState, BlockState newState) {
+        boolean wasEmitter = isEmitter(oldState);
+        boolean isEmitter = isEmitter(newState);
+        if (wasEmitter == isEmitter) {
+            return;
+        }
+        long sectionKey = ChunkSectionPos.toLong(pos);
+        short[] emitters = sectionEmitters.get(sectionKey);
+        if (emitters == null) {
+            // Not scanned yet, so it will be correct whenever it is
+            return;
+        }
+        short packedPos = ChunkSectionPos.packLocal(pos);
+        if (isEmitter) {
+            short[] updated = Arrays.copyOf(emitters, emitters.length + 1);
+            updated[emitters.length] = packedPos;
+            sectionEmitters.put(sectionKey, updated);
+        } else {
+            sectionEmitters.put(sectionKey, removePackedPos(emitters, packedPos));
+        }
+    }
+
+    public void onChunkUnloaded(ChunkPos chunkPos) {
+        int bottomSectionY = world.getBottomSectionCoord();
+        int topSectionY = world.getTopSectionCoord();
+        for (int sectionY = bottomSectionY; sectionY < topSectionY; ++sectionY) {
+            sectionEmitters.remove(ChunkSectionPos.asLong(chunkPos.x, sectionY, chunkPos.z));
+        }
+    }
+
+    // Which blocks are indexed can change when data packs are reloaded
+    public void clear() {
+        sectionEmitters.clear();
+    }
+
+    private short[] scanSection(int sectionX, int sectionY, int sectionZ) {
+        WorldChunk chunk = world.getChunk(sectionX, sectionZ);
+        ChunkSection section = chunk.getSection(world.sectionCoordToIndex(sectionY));
+        // Checking the palette first skips almost every section
+        if (section.isEmpty() || !section.hasAny(this::isEmitter)) {
+            return NO_EMITTERS;
+        }
+        ShortArrayList emitters = new ShortArrayList();
+        for (int y = 0; y < 16; ++y) {
+            for (int z = 0; z < 16; ++z) {
+                for (int x = 0; x < 16; ++x) {
+                    if (isEmitter(section.getBlockState(x, y, z))) {
+                        // Same packing as ChunkSectionPos.packLocal()
+                        emitters.add((short) (x << 8 | z << 4 | y));
+                    }
+                }
+            }
+        }
+        return emitters.toShortArray();
+    }
+
+    private static short[] removePackedPos(short[] emitters, short packedPos) {
+        for (int i = 0; i < emitters.length; ++i) {
+            if (emitters[i] == packedPos) {
+                if (emitters.length == 1) {
+                    return NO_EMITTERS;
+                }
+                short[] updated = new short[emitters.length - 1];
+                System.arraycopy(emitters, 0, updated, 0, i);
+                System.arraycopy(emitters, i + 1, updated, i, emitters.length - i - 1);
+                return updated;
+            }
+        }
+        return emitters;
+    }
+}
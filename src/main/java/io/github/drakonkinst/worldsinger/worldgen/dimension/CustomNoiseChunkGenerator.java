@@ -25,6 +25,8 @@ package io.github.drakonkinst.worldsinger.worldgen.dimension;
 
 import com.google.common.collect.Sets;
 import io.github.drakonkinst.worldsinger.mixin.accessor.ChunkNoiseSamplerInvoker;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.OptionalInt;
 import java.util.concurrent.CompletableFuture;
@@ -65,8 +67,18 @@ import org.jetbrains.annotations.Nullable;
 public abstract class CustomNoiseChunkGenerator extends NoiseChunkGenerator {
 
     private static final BlockState AIR = Blocks.AIR.getDefaultState();
+    private static final int MAX_CACHED_HEIGHT_CELLS = 4096;
+    private static final int NO_HEIGHT = Integer.MIN_VALUE;
 
     private final Supplier<AquiferSampler.FluidLevelSampler> customFluidLevelSampler;
+    // Column heights for each heightmap type, sampled one noise cell at a time. Only valid for
+    // the noise config and height limits they were sampled with.
+    private final Long2ObjectLinkedOpenHashMap<int[]> cellHeightCache =
+            new Long2ObjectLinkedOpenHashMap<>();
+    @Nullable
+    private NoiseConfig cachedNoiseConfig = null;
+    private int cachedMinY;
+    private int cachedHeight;
 
     public CustomNoiseChunkGenerator(BiomeSource biomeSource,
             RegistryEntry<ChunkGeneratorSettings> settings,
@@ -75,14 +87,133 @@ public abstract class CustomNoiseChunkGenerator extends NoiseChunkGenerator {
         this.customFluidLevelSampler = customFluidLevelSampler;
     }
 
+    // Creates a per-chunk cache that modifyBlockState() can fill in for each column the first
+    // time it needs it, so that per-column work is not repeated for every Y level. Called once
+    // per chunk, and returns null if unused.
+    @Nullable
+    protected byte[] createColumnCache(NoiseConfig noiseConfig, ChunkPos chunkPos) {
+        return null;
+    }
+
+    // The column cache is the result of createColumnCache(), indexed by (localZ << 4) | localX
     public abstract BlockState modifyBlockState(BlockState state, NoiseConfig noiseConfig, int x,
-            int y, int z);
+            int y, int z, @Nullable byte[] columns);
 
     @Override
     public int getHeight(int x, int z, Type heightmap, HeightLimitView world,
             NoiseConfig noiseConfig) {
-        return this.sampleHeightmap(world, noiseConfig, x, z, null, heightmap.getBlockPredicate())
-                .orElse(world.getBottomY());
+        GenerationShapeConfig generationShapeConfig = this.getSettings()
+                .value()
+                .generationShapeConfig()
+                .trimHeight(world);
+        int numHorizontalBlocks = generationShapeConfig.horizontalCellBlockCount();
+        int cellX = Math.floorDiv(x, numHorizontalBlocks);
+        int cellZ = Math.floorDiv(z, numHorizontalBlocks);
+        long key = CustomNoiseChunkGenerator.getCellHeightKey(cellX, cellZ, heightmap);
+
+        int[] cellHeights;
+        boolean canCache;
+        synchronized (cellHeightCache) {
+            canCache = this.prepareCellHeightCache(noiseConfig, generationShapeConfig);
+            cellHeights = canCache ? cellHeightCache.getAndMoveToFirst(key) : null;
+        }
+
+        if (cellHeights == null) {
+            if (!canCache) {
+                return this.sampleHeightmap(world, noiseConfig, x, z, null,
+                        heightmap.getBlockPredicate()).orElse(world.getBottomY());
+            }
+            // Sample the whole cell at once, since nearby columns are usually queried together
+            cellHeights = this.sampleCellHeights(generationShapeConfig, noiseConfig, cellX, cellZ,
+                    heightmap.getBlockPredicate());
+            synchronized (cellHeightCache) {
+                if (cachedNoiseConfig == noiseConfig) {
+                    cellHeightCache.putAndMoveToFirst(key, cellHeights);
+                    if (cellHeightCache.size() > MAX_CACHED_HEIGHT_CELLS) {
+                        cellHeightCache.removeLast();
+                    }
+                }
+            }
+        }
+
+        int height = cellHeights[Math.floorMod(z, numHorizontalBlocks) * numHorizontalBlocks
+                + Math.floorMod(x, numHorizontalBlocks)];
+        return height == NO_HEIGHT ? world.getBottomY() : height;
+    }
+
+    private static long getCellHeightKey(int cellX, int cellZ, Type heightmap) {
+        return ((long) (cellX & 0xFFFFFF) << 28) | ((long) (cellZ & 0xFFFFFF) << 4)
+                | heightmap.ordinal();
+    }
+
+    // Must hold the cache lock. Resets the cache if the noise config changed, such as when a world
+    // with a different seed is loaded, and returns whether the cache can be used for these limits.
+    private boolean prepareCellHeightCache(NoiseConfig noiseConfig,
+            GenerationShapeConfig generationShapeConfig) {
+        if (cachedNoiseConfig != noiseConfig) {
+            cellHeightCache.clear();
+            cachedNoiseConfig = noiseConfig;
+            cachedMinY = generationShapeConfig.minimumY();
+            cachedHeight = generationShapeConfig.height();
+            return true;
+        }
+        return cachedMinY == generationShapeConfig.minimumY()
+                && cachedHeight == generationShapeConfig.height();
+    }
+
+    // Equivalent to calling sampleHeightmap() for every column in the noise cell, using a single
+    // noise sampler. Columns without a matching block are set to NO_HEIGHT.
+    private int[] sampleCellHeights(GenerationShapeConfig generationShapeConfig,
+            NoiseConfig noiseConfig, int cellX, int cellZ, Predicate<BlockState> stopPredicate) {
+        int numHorizontalBlocks = generationShapeConfig.horizontalCellBlockCount();
+        int numVerticalBlocks = generationShapeConfig.verticalCellBlockCount();
+        int[] heights = new int[numHorizontalBlocks * numHorizontalBlocks];
+        Arrays.fill(heights, NO_HEIGHT);
+
+        int k = MathHelper.floorDiv(generationShapeConfig.minimumY(), numVerticalBlocks);
+        int l = MathHelper.floorDiv(generationShapeConfig.height(), numVerticalBlocks);
+        if (l <= 0) {
+            return heights;
+        }
+        int r = cellX * numHorizontalBlocks;
+        int s = cellZ * numHorizontalBlocks;
+        int remaining = heights.length;
+
+        ChunkNoiseSampler chunkNoiseSampler = new ChunkNoiseSampler(1, noiseConfig, r, s,
+                generationShapeConfig, DensityFunctionTypes.Beardifier.INSTANCE,
+                this.getSettings().value(), customFluidLevelSampler.get(), Blender.getNoBlending());
+        chunkNoiseSampler.sampleStartDensity();
+        chunkNoiseSampler.sampleEndDensity(0);
+        for (int t = l - 1; t >= 0 && remaining > 0; --t) {
+            chunkNoiseSampler.onSampledCellCorners(t, 0);
+            for (int u = numVerticalBlocks - 1; u >= 0 && remaining > 0; --u) {
+                int y = (k + t) * numVerticalBlocks + u;
+                double tY = (double) u / (double) numVerticalBlocks;
+                chunkNoiseSampler.interpolateY(y, tY);
+                for (int p = 0; p < numHorizontalBlocks; ++p) {
+                    double tX = (double) p / (double) numHorizontalBlocks;
+                    chunkNoiseSampler.interpolateX(r + p, tX);
+                    for (int q = 0; q < numHorizontalBlocks; ++q) {
+                        int index = q * numHorizontalBlocks + p;
+                        if (heights[index] != NO_HEIGHT) {
+                            continue;
+                        }
+                        double tZ = (double) q / (double) numHorizontalBlocks;
+                        chunkNoiseSampler.interpolateZ(s + q, tZ);
+                        BlockState sampledState = ((ChunkNoiseSamplerInvoker) chunkNoiseSampler).worldsinger$sampleBlockState();
+                        BlockState blockState =
+                                sampledState == null ? this.getSettings().value().defaultBlock()
+                                        : sampledState;
+                        if (stopPredicate.test(blockState)) {
+                            heights[index] = y + 1;
+                            --remaining;
+                        }
+                    }
+                }
+            }
+        }
+        chunkNoiseSampler.stopInterpolation();
+        return heights;
     }
 
     private OptionalInt sampleHeightmap(HeightLimitView world, NoiseConfig noiseConfig, int x,
@@ -228,6 +359,7 @@ public abstract class CustomNoiseChunkGenerator extends NoiseChunkGenerator {
         int startX = chunkPos.getStartX();
         int startZ = chunkPos.getStartZ();
         AquiferSampler aquiferSampler = chunkNoiseSampler.getAquiferSampler();
+        byte[] columns = this.createColumnCache(noiseConfig, chunkPos);
         chunkNoiseSampler.sampleStartDensity();
         BlockPos.Mutable mutable = new BlockPos.Mutable();
         int horizontalCellCount = ((ChunkNoiseSamplerInvoker) chunkNoiseSampler).worldsinger$getHorizontalCellBlockCount();
@@ -272,7 +404,7 @@ public abstract class CustomNoiseChunkGenerator extends NoiseChunkGenerator {
 
                                 // Allow block state to be modified before placement
                                 blockState = this.modifyBlockState(blockState, noiseConfig, x, y,
-                                        z);
+                                        z, columns);
                                 chunkSection.setBlockState(chunkX, chunkY, chunkZ, blockState,
                                         false);
                                 oceanFloorHeightmap.trackUpdate(chunkX, y, chunkZ, blockState);
@@ -35,11 +35,13 @@ import io.github.drakonkinst.worldsinger.cosmere.lumar.VerdantSpores;
 import io.github.drakonkinst.worldsinger.cosmere.lumar.ZephyrSpores;
 import io.github.drakonkinst.worldsinger.fluid.ModFluidTags;
 import io.github.drakonkinst.worldsinger.worldgen.dimension.CustomNoiseChunkGenerator;
+import java.util.Arrays;
 import java.util.function.Supplier;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.fluid.FluidState;
 import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.biome.source.BiomeSource;
 import net.minecraft.world.gen.chunk.AquiferSampler;
 import net.minecraft.world.gen.chunk.AquiferSampler.FluidLevelSampler;
@@ -47,6 +49,7 @@ import net.minecraft.world.gen.chunk.ChunkGenerator;
 import net.minecraft.world.gen.chunk.ChunkGeneratorSettings;
 import net.minecraft.world.gen.densityfunction.DensityFunction;
 import net.minecraft.world.gen.noise.NoiseConfig;
+import org.jetbrains.annotations.Nullable;
 
 public class LumarChunkGenerator extends CustomNoiseChunkGenerator {
 
@@ -79,6 +82,7 @@ public class LumarChunkGenerator extends CustomNoiseChunkGenerator {
     };
     private static final int SHIFT_X = 10000;
     private static final int SHIFT_Z = 10000;
+    private static final byte UNSAMPLED_COLUMN = -1;
 
     private static AquiferSampler.FluidLevelSampler createFluidLevelSampler() {
         AquiferSampler.FluidLevel fluidLevel = new AquiferSampler.FluidLevel(SEA_LEVEL,
@@ -91,24 +95,40 @@ public class LumarChunkGenerator extends CustomNoiseChunkGenerator {
     }
 
     public static SporeSeaEntry getSporeSeaEntryAtPos(NoiseConfig noiseConfig, int x, int z) {
+        int entryIndex = SporeSeaCache.get(noiseConfig).getEntryIndex(noiseConfig, x, z);
+        return SPORE_SEA_ENTRIES[entryIndex];
+    }
+
+    // For sparse lookups that are unlikely to be repeated, such as searches. Uses the cache if the
+    // column has already been classified, but does not fill it.
+    public static SporeSeaEntry probeSporeSeaEntryAtPos(NoiseConfig noiseConfig, int x, int z) {
+        int entryIndex = SporeSeaCache.get(noiseConfig).peekEntryIndex(x, z);
+        if (entryIndex < 0) {
+            entryIndex = LumarChunkGenerator.sampleSporeSeaEntryIndex(noiseConfig, x, z);
+        }
+        return SPORE_SEA_ENTRIES[entryIndex];
+    }
+
+    // Samples the noise directly. Prefer getSporeSeaEntryAtPos(), which caches the result
+    static int sampleSporeSeaEntryIndex(NoiseConfig noiseConfig, int x, int z) {
         DensityFunction temperature = noiseConfig.getNoiseRouter().temperature();
         double first = temperature.sample(new DensityFunction.UnblendedNoisePos(x, 0, z));
         double second = temperature.sample(
                 new DensityFunction.UnblendedNoisePos(z + SHIFT_X, 0, x + SHIFT_Z));
-        SporeSeaEntry entry = LumarChunkGenerator.getNearestSporeSeaEntry(first, second);
-        return entry;
+        return LumarChunkGenerator.getNearestSporeSeaEntryIndex(first, second);
     }
 
-    private static SporeSeaEntry getNearestSporeSeaEntry(double x, double y) {
+    private static int getNearestSporeSeaEntryIndex(double x, double y) {
         double minDistSq = Double.MAX_VALUE;
-        SporeSeaEntry result = SPORE_SEA_ENTRIES[0];
+        int result = 0;
 
-        for (SporeSeaEntry entry : SPORE_SEA_ENTRIES) {
+        for (int i = 0; i < SPORE_SEA_ENTRIES.length; ++i) {
+            SporeSeaEntry entry = SPORE_SEA_ENTRIES[i];
             double deltaX = entry.noiseX() - x;
             double deltaY = entry.noiseY() - y;
             double distSq = deltaX * deltaX + deltaY * deltaY;
             if (distSq < minDistSq) {
-                result = entry;
+                result = i;
                 minDistSq = distSq;
             }
         }
@@ -121,14 +141,32 @@ public class LumarChunkGenerator extends CustomNoiseChunkGenerator {
         super(biomeSource, settings, SPORE_SEA_PLACEHOLDER);
     }
 
+    @Override
+    protected byte[] createColumnCache(NoiseConfig noiseConfig, ChunkPos chunkPos) {
+        // Starts out unsampled, since most chunks only place the spore sea in a few columns if at
+        // all. modifyBlockState() samples each column on its first placeholder block.
+        byte[] entryIndices = new byte[16 * 16];
+        Arrays.fill(entryIndices, UNSAMPLED_COLUMN);
+        return entryIndices;
+    }
+
     @Override
     public BlockState modifyBlockState(BlockState state, NoiseConfig noiseConfig, int x, int y,
-            int z) {
+            int z, @Nullable byte[] columns) {
         if (!state.isOf(PLACEHOLDER_BLOCK)) {
             return state;
         }
+        if (columns == null) {
+            return LumarChunkGenerator.getSporeSeaBlockAtPos(noiseConfig, x, z);
+        }
 
-        return LumarChunkGenerator.getSporeSeaBlockAtPos(noiseConfig, x, z);
+        int index = ((z & 0xF) << 4) | (x & 0xF);
+        int entryIndex = columns[index];
+        if (entryIndex == UNSAMPLED_COLUMN) {
+            entryIndex = SporeSeaCache.get(noiseConfig).getEntryIndex(noiseConfig, x, z);
+            columns[index] = (byte) entryIndex;
+        }
+        return SPORE_SEA_ENTRIES[entryIndex].blockState();
     }
 
     @Override
@@ -0,0 +1,135 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023-2024 Drakonkinst
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.drakonkinst.worldsinger.worldgen.lumar;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.gen.noise.NoiseConfig;
+
+// Caches the spore sea classification of each block column, which never changes for a given seed.
+// Columns are grouped into square tiles that are lazily filled and evicted when least recently
+// used. Shared between world generation threads and the server thread, so tiles are split across
+// stripes that are each locked and evicted separately.
+public class SporeSeaCache {
+
+    private static final int TILE_SHIFT = 6;
+    private static final int TILE_SIZE = 1 << TILE_SHIFT;
+    private static final int TILE_MASK = TILE_SIZE - 1;
+    private static final int STRIPE_SHIFT = 4;
+    private static final int NUM_STRIPES = 1 << STRIPE_SHIFT;
+    private static final int MAX_TILES_PER_STRIPE = 1024 / NUM_STRIPES;
+    private static final byte UNKNOWN = -1;
+
+    // Noise configs are created once per world and seed, so they are used as the cache key.
+    // Weakly held so that the cache does not outlive the world.
+    private static final Map<NoiseConfig, SporeSeaCache> CACHES = Collections.synchronizedMap(
+            new WeakHashMap<>());
+
+    // Columns are looked up one at a time during generation, so the last cache is remembered to
+    // avoid locking the shared map for every one of them
+    private static volatile SporeSeaCache lastCache;
+
+    public static SporeSeaCache get(NoiseConfig noiseConfig) {
+        SporeSeaCache cache = lastCache;
+        if (cache != null && cache.noiseConfig.get() == noiseConfig) {
+            return cache;
+        }
+        cache = CACHES.computeIfAbsent(noiseConfig, SporeSeaCache::new);
+        lastCache = cache;
+        return cache;
+    }
+
+    @SuppressWarnings("unchecked")
+    private final Long2ObjectLinkedOpenHashMap<byte[]>[] stripes =
+            new Long2ObjectLinkedOpenHashMap[NUM_STRIPES];
+
+    private final WeakReference<NoiseConfig> noiseConfig;
+
+    private SporeSeaCache(NoiseConfig noiseConfig) {
+        this.noiseConfig = new WeakReference<>(noiseConfig);
+        for (int i = 0; i < NUM_STRIPES; ++i) {
+            stripes[i] = new Long2ObjectLinkedOpenHashMap<>();
+        }
+    }
+
+    // Returns the index of the spore sea entry at the given column
+    public int getEntryIndex(NoiseConfig noiseConfig, int x, int z) {
+        byte[] tile = getOrCreateTile(x >> TILE_SHIFT, z >> TILE_SHIFT);
+        return getOrSampleEntryIndex(tile, noiseConfig, x, z);
+    }
+
+    // Returns the entry index if it has already been sampled, or -1 otherwise. Does not create
+    // tiles, so sparse lookups do not evict useful ones.
+    public int peekEntryIndex(int x, int z) {
+        long key = ChunkPos.toLong(x >> TILE_SHIFT, z >> TILE_SHIFT);
+        Long2ObjectLinkedOpenHashMap<byte[]> stripe = getStripe(key);
+        byte[] tile;
+        synchronized (stripe) {
+            tile = stripe.get(key);
+        }
+        if (tile == null) {
+            return UNKNOWN;
+        }
+        return tile[((z & TILE_MASK) << TILE_SHIFT) | (x & TILE_MASK)];
+    }
+
+    private byte getOrSampleEntryIndex(byte[] tile, NoiseConfig noiseConfig, int x, int z) {
+        int index = ((z & TILE_MASK) << TILE_SHIFT) | (x & TILE_MASK);
+        byte entryIndex = tile[index];
+        if (entryIndex == UNKNOWN) {
+            // Racing writes are harmless since every thread computes the same value
+            entryIndex = (byte) LumarChunkGenerator.sampleSporeSeaEntryIndex(noiseConfig, x, z);
+            tile[index] = entryIndex;
+        }
+        return entryIndex;
+    }
+
+    private byte[] getOrCreateTile(int tileX, int tileZ) {
+        long key = ChunkPos.toLong(tileX, tileZ);
+        Long2ObjectLinkedOpenHashMap<byte[]> stripe = getStripe(key);
+        synchronized (stripe) {
+            byte[] tile = stripe.getAndMoveToLast(key);
+            if (tile == null) {
+                tile = new byte[TILE_SIZE * TILE_SIZE];
+                Arrays.fill(tile, UNKNOWN);
+                stripe.putAndMoveToLast(key, tile);
+                if (stripe.size() > MAX_TILES_PER_STRIPE) {
+                    stripe.removeFirst();
+                }
+            }
+            return tile;
+        }
+    }
+
+    private Long2ObjectLinkedOpenHashMap<byte[]> getStripe(long key) {
+        // Mixed so that neighboring tiles land on different stripes
+        return stripes[(int) (HashCommon.mix(key) >>> (Long.SIZE - STRIPE_SHIFT))];
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023-2024 Drakonkinst
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.drakonkinst.worldsinger.block;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.github.drakonkinst.worldsinger.block.SporeFluidizationQueue.ColumnAccess;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import java.util.Arrays;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import org.junit.jupiter.api.Test;
+
+public class SporeFluidizationQueueTest {
+
+    private static final int HEIGHT = 16;
+    private static final int SPORE_HEIGHT = 10;
+    private static final char MAGMA = 'M';
+    private static final char STONE = 'X';
+    private static final char SOLID = 'S';
+    private static final char FLUID = 'F';
+    private static final char AIR = '.';
+
+    // Columns of single-character blocks, with a fluidize source at y = 0 and spores above it
+    private static class TestColumnAccess implements ColumnAccess {
+
+        private final Long2ObjectMap<char[]> columns = new Long2ObjectOpenHashMap<>();
+        private final LongSet unloadedChunks = new LongOpenHashSet();
+
+        private char[] getColumn(int x, int z) {
+            return columns.computeIfAbsent(ChunkPos.toLong(x, z), key -> {
+                char[] column = new char[HEIGHT];
+                Arrays.fill(column, AIR);
+                column[0] = STONE;
+                Arrays.fill(column, 1, 1 + SPORE_HEIGHT, SOLID);
+                return column;
+            });
+        }
+
+        private void setSource(int x, int z, char source) {
+            getColumn(x, z)[0] = source;
+        }
+
+        private int count(int x, int z, char block) {
+            int count = 0;
+            for (char c : getColumn(x, z)) {
+                if (c == block) {
+                    ++count;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public boolean isChunkLoaded(int chunkX, int chunkZ) {
+            return !unloadedChunks.contains(ChunkPos.toLong(chunkX, chunkZ));
+        }
+
+        @Override
+        public int getTopY() {
+            return HEIGHT - 1;
+        }
+
+        @Override
+        public boolean shouldFluidize(BlockPos pos) {
+            char below = getColumn(pos.getX(), pos.getZ())[pos.getY() - 1];
+            return below == MAGMA || below == FLUID;
+        }
+
+        @Override
+        public boolean updateFluidization(BlockPos pos, boolean fluidized) {
+            char[] column = getColumn(pos.getX(), pos.getZ());
+            char block = column[pos.getY()];
+            if (block != SOLID && block != FLUID) {
+                return false;
+            }
+            column[pos.getY()] = fluidized ? FLUID : SOLID;
+            return true;
+        }
+    }
+
+    @Test
+    public void latestSourceWinsAfterInterleavedFlips() {
+        SporeFluidizationQueue queue = new SporeFluidizationQueue();
+        TestColumnAccess access = new TestColumnAccess();
+        BlockPos pos = new BlockPos(0, 1, 0);
+
+        // The source flips several times before the queue gets to the column
+        access.setSource(0, 0, MAGMA);
+        queue.add(pos);
+        access.setSource(0, 0, STONE);
+        queue.add(pos);
+        access.setSource(0, 0, MAGMA);
+        queue.add(pos.up(3));
+        access.setSource(0, 0, STONE);
+        queue.add(pos);
+
+        queue.drain(access, Integer.MAX_VALUE);
+        assertEquals(SPORE_HEIGHT, access.count(0, 0, SOLID));
+        assertEquals(0, queue.getQueuedRequestCount());
+
+        access.setSource(0, 0, MAGMA);
+        queue.add(pos);
+        access.setSource(0, 0, STONE);
+        queue.add(pos.up(5));
+        access.setSource(0, 0, MAGMA);
+        queue.add(pos);
+
+        queue.drain(access, Integer.MAX_VALUE);
+        assertEquals(SPORE_HEIGHT, access.count(0, 0, FLUID));
+        assertEquals(0, queue.getQueuedRequestCount());
+    }
+
+    @Test
+    public void sweepResumesAfterBudgetRunsOut() {
+        SporeFluidizationQueue queue = new SporeFluidizationQueue();
+        TestColumnAccess access = new TestColumnAccess();
+        access.setSource(0, 0, MAGMA);
+        queue.add(new BlockPos(0, 1, 0));
+
+        queue.drain(access, 4);
+        assertEquals(4, access.count(0, 0, FLUID));
+        assertEquals(1, queue.getQueuedRequestCount());
+
+        queue.drain(access, Integer.MAX_VALUE);
+        assertEquals(SPORE_HEIGHT, access.count(0, 0, FLUID));
+        assertEquals(0, queue.getQueuedRequestCount());
+    }
+
+    @Test
+    public void chunksDrainInRequestOrder() {
+        SporeFluidizationQueue queue = new SporeFluidizationQueue();
+        TestColumnAccess access = new TestColumnAccess();
+        int otherX = ChunkSectionPos.getBlockCoord(3);
+        access.setSource(otherX, 0, MAGMA);
+        access.setSource(0, 0, MAGMA);
+        queue.add(new BlockPos(otherX, 1, 0));
+        queue.add(new BlockPos(0, 1, 0));
+
+        // Enough to finish one column, including the step that hits the air above it
+        queue.drain(access, SPORE_HEIGHT + 1);
+        assertEquals(SPORE_HEIGHT, access.count(otherX, 0, FLUID));
+        assertEquals(0, access.count(0, 0, FLUID));
+
+        queue.drain(access, SPORE_HEIGHT + 1);
+        assertEquals(SPORE_HEIGHT, access.count(0, 0, FLUID));
+        assertEquals(0, queue.getQueuedRequestCount());
+    }
+
+    @Test
+    public void unloadedChunkResumesWhenLoaded() {
+        SporeFluidizationQueue queue = new SporeFluidizationQueue();
+        TestColumnAccess access = new TestColumnAccess();
+        access.setSource(0, 0, MAGMA);
+        queue.add(new BlockPos(0, 1, 0));
+
+        queue.drain(access, 4);
+        access.unloadedChunks.add(ChunkPos.toLong(0, 0));
+        queue.drain(access, Integer.MAX_VALUE);
+        assertEquals(4, access.count(0, 0, FLUID));
+        assertEquals(1, queue.getQueuedRequestCount());
+
+        access.unloadedChunks.clear();
+        queue.onChunkLoaded(new ChunkPos(0, 0));
+        queue.drain(access, Integer.MAX_VALUE);
+        assertEquals(SPORE_HEIGHT, access.count(0, 0, FLUID));
+        assertEquals(0, queue.getQueuedRequestCount());
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023-2024 Drakonkinst
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.drakonkinst.worldsinger.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.mojang.datafixers.util.Pair;
+import io.github.drakonkinst.worldsinger.command.LocateSporeSeaCommand.ParallelSearch;
+import io.github.drakonkinst.worldsinger.command.LocateSporeSeaCommand.SearchChecks;
+import io.github.drakonkinst.worldsinger.worldgen.lumar.LumarChunkGenerator.SporeSeaEntry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.BlockPos.Mutable;
+import net.minecraft.util.math.Direction;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LocateSporeSeaCommandTest {
+
+    private static final int RADIUS = 6400;
+    private static final int INTERVAL = 64;
+    private static final long[] SEEDS = { 0L, 1L, 42L, 1234567L, -987654321L };
+
+    // A random field of matching positions, where some positions are rejected once confirmed as
+    // if their chunk were loaded
+    private record RandomSearchChecks(long seed, int matchChance) implements SearchChecks {
+
+        private long hash(int x, int z, long salt) {
+            long h = seed ^ salt;
+            h = (h ^ x) * 0x9E3779B97F4A7C15L;
+            h = (h ^ z) * 0xC2B2AE3D27D4EB4FL;
+            return h ^ (h >>> 29);
+        }
+
+        @Override
+        public @Nullable SporeSeaEntry getMatchingEntry(int x, int z) {
+            if (Math.floorMod(hash(x, z, 1L), matchChance) != 0) {
+                return null;
+            }
+            return new SporeSeaEntry(1, null, 0.0, 0.0);
+        }
+
+        @Override
+        public boolean isIdealSpawnHeightFromNoise(int x, int z) {
+            return (hash(x, z, 2L) & 1L) == 0L;
+        }
+
+        @Override
+        public boolean confirm(int x, int z, boolean idealHeightFromNoise) {
+            if (Math.floorMod(hash(x, z, 3L), 4) == 0) {
+                return !idealHeightFromNoise;
+            }
+            return idealHeightFromNoise;
+        }
+    }
+
+    // The original serial spiral search
+    @Nullable
+    private static BlockPos searchSpiral(SearchChecks checks, boolean mustBeIdealSpawnHeight) {
+        int cellRadius = Math.floorDiv(RADIUS, INTERVAL);
+        for (Mutable mutable : BlockPos.iterateInSquare(BlockPos.ORIGIN, cellRadius, Direction.EAST,
+                Direction.SOUTH)) {
+            int x = mutable.getX() * INTERVAL;
+            int z = mutable.getZ() * INTERVAL;
+            if (checks.getMatchingEntry(x, z) == null) {
+                continue;
+            }
+            if (!mustBeIdealSpawnHeight || checks.confirm(x, z,
+                    checks.isIdealSpawnHeightFromNoise(x, z))) {
+                return new BlockPos(x, 0, z);
+            }
+        }
+        return null;
+    }
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private void assertSameAsSpiral(SearchChecks checks, boolean mustBeIdealSpawnHeight) {
+        BlockPos expected = searchSpiral(checks, mustBeIdealSpawnHeight);
+        Pair<BlockPos, SporeSeaEntry> result = new ParallelSearch(checks, 0, 0, RADIUS, INTERVAL,
+                mustBeIdealSpawnHeight).run(executor, 60000L);
+        if (expected == null) {
+            assertNull(result);
+        } else {
+            assertNotNull(result);
+            assertEquals(expected, result.getFirst());
+        }
+    }
+
+    @Test
+    public void sameFirstHitAsSpiral() {
+        for (long seed : SEEDS) {
+            for (int matchChance : new int[] { 50, 5000, 50000 }) {
+                SearchChecks checks = new RandomSearchChecks(seed, matchChance);
+                assertSameAsSpiral(checks, false);
+                assertSameAsSpiral(checks, true);
+            }
+        }
+    }
+
+    @Test
+    public void noMatchReturnsNull() {
+        assertSameAsSpiral(new RandomSearchChecks(0L, Integer.MAX_VALUE), false);
+        assertSameAsSpiral(new RandomSearchChecks(0L, Integer.MAX_VALUE), true);
+    }
+}
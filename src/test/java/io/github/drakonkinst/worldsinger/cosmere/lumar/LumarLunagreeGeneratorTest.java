@@ -0,0 +1,177 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023-2024 Drakonkinst
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.drakonkinst.worldsinger.cosmere.lumar;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import io.github.drakonkinst.worldsinger.util.math.Int2;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LumarLunagreeGeneratorTest {
+
+    private static final int RECORD_SIZE = Long.BYTES + LunagreeLocation.BYTE_SIZE;
+
+    @TempDir
+    File tempDir;
+
+    private static LunagreeLocation createLocation(int blockX, int blockZ, int sporeId) {
+        Int2[] rainlineNodes = new Int2[RainlinePath.RAINLINE_NODE_COUNT];
+        for (int i = 0; i < rainlineNodes.length; ++i) {
+            rainlineNodes[i] = new Int2(blockX + i, blockZ - i);
+        }
+        return new LunagreeLocation(blockX, blockZ, sporeId, rainlineNodes);
+    }
+
+    private static void assertLocationEquals(LunagreeLocation expected, LunagreeLocation actual) {
+        assertNotNull(actual);
+        assertEquals(expected.blockX(), actual.blockX());
+        assertEquals(expected.blockZ(), actual.blockZ());
+        assertEquals(expected.sporeId(), actual.sporeId());
+        for (int i = 0; i < RainlinePath.RAINLINE_NODE_COUNT; ++i) {
+            assertEquals(expected.rainlineNodes()[i], actual.rainlineNodes()[i]);
+        }
+    }
+
+    // Lunagrees far enough apart to be in different cells and regions
+    private static LunagreeLocation[] createLocations() {
+        return new LunagreeLocation[] {
+                createLocation(1600, 1600, VerdantSpores.ID),
+                createLocation(-40000, 25000, CrimsonSpores.ID),
+                createLocation(52000, -18000, MidnightSpores.ID)
+        };
+    }
+
+    private static LumarLunagreeGenerator load(File file) {
+        LumarLunagreeGenerator generator = new LumarLunagreeGenerator(null);
+        generator.loadBytesFromFile(file);
+        return generator;
+    }
+
+    private static void add(LumarLunagreeGenerator generator, LunagreeLocation location) {
+        long key = generator.getKeyForPos(location.blockX(), location.blockZ());
+        generator.addGeneratedLunagree(key, location);
+    }
+
+    private static void assertContains(LumarLunagreeGenerator generator,
+            LunagreeLocation location) {
+        long key = generator.getKeyForPos(location.blockX(), location.blockZ());
+        assertLocationEquals(location, generator.getLunagreeForKey(key, false));
+    }
+
+    @Test
+    public void recordsRoundTrip() {
+        File file = new File(tempDir, "lunagree_records.dat");
+        LunagreeLocation[] locations = createLocations();
+        LumarLunagreeGenerator generator = new LumarLunagreeGenerator(null);
+        add(generator, locations[0]);
+        add(generator, locations[1]);
+        generator.saveBytesToFile(file);
+
+        // Appended to the existing file
+        LumarLunagreeGenerator reloaded = load(file);
+        add(reloaded, locations[2]);
+        reloaded.saveBytesToFile(file);
+
+        LumarLunagreeGenerator result = load(file);
+        for (LunagreeLocation location : locations) {
+            assertContains(result, location);
+        }
+    }
+
+    @Test
+    public void tornRecordIsDiscardedBeforeAppending() throws IOException {
+        File file = new File(tempDir, "lunagree_records.dat");
+        LunagreeLocation[] locations = createLocations();
+        LumarLunagreeGenerator generator = new LumarLunagreeGenerator(null);
+        add(generator, locations[0]);
+        add(generator, locations[1]);
+        generator.saveBytesToFile(file);
+        long validLength = file.length();
+
+        // Simulate a crash partway through appending a record
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(new byte[RECORD_SIZE / 2]);
+        }
+
+        LumarLunagreeGenerator reloaded = load(file);
+        assertEquals(validLength, file.length());
+        add(reloaded, locations[2]);
+        reloaded.saveBytesToFile(file);
+        assertEquals(validLength + RECORD_SIZE, file.length());
+
+        LumarLunagreeGenerator result = load(file);
+        for (LunagreeLocation location : locations) {
+            assertContains(result, location);
+        }
+    }
+
+    @Test
+    public void unreadableFileIsKeptAsBackup() throws IOException {
+        File file = new File(tempDir, "lunagree_records.dat");
+        byte[] unknownFormat = new byte[] { 0, 0, 0, 99, 0, 0, 0, 1, 1, 2, 3 };
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(unknownFormat);
+        }
+
+        LunagreeLocation[] locations = createLocations();
+        LumarLunagreeGenerator generator = load(file);
+        add(generator, locations[0]);
+        generator.saveBytesToFile(file);
+
+        File[] backups = tempDir.listFiles((dir, name) -> name.endsWith(".bak"));
+        assertNotNull(backups);
+        assertEquals(1, backups.length);
+        assertArrayEquals(unknownFormat, Files.readAllBytes(backups[0].toPath()));
+        assertContains(load(file), locations[0]);
+    }
+
+    @Test
+    public void rewriteLeavesNoTemporaryFile() {
+        File file = new File(tempDir, "lunagree_records.dat");
+        LunagreeLocation[] locations = createLocations();
+        LumarLunagreeGenerator generator = new LumarLunagreeGenerator(null);
+        add(generator, locations[0]);
+        generator.saveBytesToFile(file);
+
+        // Saving under a different file rewrites everything, including unloaded regions
+        File otherFile = new File(tempDir, "lunagree_records_copy.dat");
+        LumarLunagreeGenerator reloaded = load(file);
+        add(reloaded, locations[1]);
+        reloaded.saveBytesToFile(otherFile);
+
+        assertFalse(new File(otherFile.getPath() + ".tmp").exists());
+        LumarLunagreeGenerator result = load(otherFile);
+        assertContains(result, locations[0]);
+        assertContains(result, locations[1]);
+    }
+}
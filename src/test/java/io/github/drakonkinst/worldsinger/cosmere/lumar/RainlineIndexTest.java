@@ -0,0 +1,145 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023-2024 Drakonkinst
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.drakonkinst.worldsinger.cosmere.lumar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.drakonkinst.worldsinger.cosmere.lumar.RainlineIndex.IndexedRainline;
+import it.unimi.dsi.fastutil.longs.LongByteImmutablePair;
+import it.unimi.dsi.fastutil.longs.LongBytePair;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+public class RainlineIndexTest {
+
+    private static final long LUNAGREE_KEY = 12345L;
+    private static final byte PATH_INDEX = 2;
+
+    private static class TestRainline implements IndexedRainline {
+
+        private double x;
+        private double z;
+        @Nullable
+        private LongBytePair pathId;
+
+        private TestRainline(double x, double z, @Nullable LongBytePair pathId) {
+            this.x = x;
+            this.z = z;
+            this.pathId = pathId;
+        }
+
+        @Override
+        public double getX() {
+            return x;
+        }
+
+        @Override
+        public double getZ() {
+            return z;
+        }
+
+        @Override
+        public @Nullable LongBytePair getFollowedPathId() {
+            return pathId;
+        }
+    }
+
+    private static LongBytePair createPathId() {
+        return new LongByteImmutablePair(LUNAGREE_KEY, PATH_INDEX);
+    }
+
+    @Test
+    public void removeReleasesPath() {
+        RainlineIndex index = new RainlineIndex();
+        TestRainline rainline = new TestRainline(0.0, 0.0, createPathId());
+        index.add(rainline);
+        assertTrue(index.hasRainlineForPath(LUNAGREE_KEY, PATH_INDEX));
+        index.remove(rainline);
+        assertFalse(index.hasRainlineForPath(LUNAGREE_KEY, PATH_INDEX));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void switchingToWanderReleasesPath() {
+        RainlineIndex index = new RainlineIndex();
+        TestRainline rainline = new TestRainline(0.0, 0.0, createPathId());
+        index.add(rainline);
+
+        rainline.pathId = null;
+        index.update(rainline);
+        assertFalse(index.hasRainlineForPath(LUNAGREE_KEY, PATH_INDEX));
+
+        // Removing it afterward must not affect a new rainline on the same path
+        TestRainline replacement = new TestRainline(100.0, 100.0, createPathId());
+        index.add(replacement);
+        index.remove(rainline);
+        assertTrue(index.hasRainlineForPath(LUNAGREE_KEY, PATH_INDEX));
+        index.remove(replacement);
+        assertFalse(index.hasRainlineForPath(LUNAGREE_KEY, PATH_INDEX));
+    }
+
+    @Test
+    public void switchingWhileUnnotifiedIsCleanedUpOnRemove() {
+        RainlineIndex index = new RainlineIndex();
+        TestRainline rainline = new TestRainline(0.0, 0.0, createPathId());
+        index.add(rainline);
+
+        // Removed in the same tick it switched behavior, before any update
+        rainline.pathId = null;
+        index.remove(rainline);
+        assertFalse(index.hasRainlineForPath(LUNAGREE_KEY, PATH_INDEX));
+    }
+
+    @Test
+    public void duplicateTakesOverPath() {
+        RainlineIndex index = new RainlineIndex();
+        TestRainline original = new TestRainline(0.0, 0.0, createPathId());
+        TestRainline duplicate = new TestRainline(200.0, 0.0, createPathId());
+        index.add(original);
+        index.add(duplicate);
+        index.remove(original);
+        assertTrue(index.hasRainlineForPath(LUNAGREE_KEY, PATH_INDEX));
+        index.remove(duplicate);
+        assertFalse(index.hasRainlineForPath(LUNAGREE_KEY, PATH_INDEX));
+    }
+
+    @Test
+    public void movingUpdatesCoverageAndCells() {
+        RainlineIndex index = new RainlineIndex();
+        TestRainline rainline = new TestRainline(0.5, 0.5, null);
+        index.add(rainline);
+        assertTrue(index.isColumnCovered(0, 0));
+        assertTrue(index.isAnyRainlineWithin(0.0, 0.0, 1.0));
+
+        rainline.x = 1000.5;
+        index.update(rainline);
+        assertFalse(index.isColumnCovered(0, 0));
+        assertTrue(index.isColumnCovered(1000, 0));
+        assertFalse(index.isAnyRainlineWithin(0.0, 0.0, 1.0));
+        assertTrue(index.isAnyRainlineWithin(1000.0, 0.0, 1.0));
+    }
+}
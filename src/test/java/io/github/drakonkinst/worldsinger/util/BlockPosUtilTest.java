@@ -0,0 +1,44 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023-2024 Drakonkinst
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.drakonkinst.worldsinger.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import io.github.drakonkinst.worldsinger.registry.tag.ModBlockTags;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import org.junit.jupiter.api.Test;
+
+public class BlockPosUtilTest {
+
+    // No world is needed, since no blocks should be looked at
+    @Test
+    public void sameBlockIsNeverOccluded() {
+        BlockPos pos = new BlockPos(12, 64, -7);
+        assertFalse(BlockPosUtil.isOccluded(null, pos, pos, ModBlockTags.BLOCKS_INVESTITURE));
+        assertFalse(BlockPosUtil.isOccluded(null, new Vec3d(12.1, 64.2, -6.9),
+                new Vec3d(12.8, 64.9, -6.2), ModBlockTags.BLOCKS_INVESTITURE));
+    }
+}